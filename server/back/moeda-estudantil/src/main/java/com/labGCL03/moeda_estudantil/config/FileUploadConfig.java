@@ -1,25 +1,66 @@
 package com.labGCL03.moeda_estudantil.config;
 
+import com.labGCL03.moeda_estudantil.util.ImageUrls;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class FileUploadConfig implements WebMvcConfigurer {
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    private final String uploadDir;
+
+    public FileUploadConfig(@Value("${file.upload-dir:uploads}") String uploadDir,
+                            @Value("${app.public-base-url:}") String publicBaseUrl) {
+        this.uploadDir = uploadDir;
+        // URLs de imagem nas respostas usam esta origem, nunca o Host da requisição
+        ImageUrls.setBaseUrl(publicBaseUrl);
+    }
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path uploadPath = Paths.get(uploadDir);
         String uploadPathAbsolute = uploadPath.toFile().getAbsolutePath();
 
+        // Imagens do ImageStore: o nome do arquivo é o hash do conteúdo, então o arquivo de uma
+        // URL nunca muda. Cache de um ano marcado como immutable e ETag forte a partir do nome;
+        // If-None-Match responde 304 e requisições Range são atendidas pelo próprio handler
+        registry.addResourceHandler("/uploads/images/**")
+                .addResourceLocations("file:" + uploadPathAbsolute + "/images/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .setEtagGenerator(FileUploadConfig::imageEtag)
+                .resourceChain(true)
+                .addResolver(new ImageKeyResourceResolver());
+
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadPathAbsolute + "/");
+                .addResourceLocations("file:" + uploadPathAbsolute + "/")
+                .setCacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic());
+    }
+
+    private static String imageEtag(Resource resource) {
+        String name = resource.getFilename();
+        return name != null ? name.substring(0, name.lastIndexOf('.')) : null;
+    }
+
+    /**
+     * Só entrega arquivos cujo nome é uma chave válida do ImageStore, o que também impede
+     * acesso aos temporários de upload que ficam sob o mesmo diretório.
+     */
+    private static final class ImageKeyResourceResolver extends PathResourceResolver {
+
+        @Override
+        protected Resource getResource(String resourcePath, Resource location) throws IOException {
+            String fileName = resourcePath.substring(resourcePath.lastIndexOf('/') + 1);
+            return ImageUrls.isValidKey(fileName) ? super.getResource(resourcePath, location) : null;
+        }
     }
 }
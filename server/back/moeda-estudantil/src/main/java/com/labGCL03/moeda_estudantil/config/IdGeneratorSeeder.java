@@ -0,0 +1,50 @@
+package com.labGCL03.moeda_estudantil.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ajusta a tabela id_generators para bancos criados quando as entidades ainda
+ * usavam AUTO_INCREMENT. O otimizador pooled do Hibernate entrega IDs a partir de
+ * (next_val - allocationSize + 1), então cada segmento precisa começar acima do
+ * maior ID existente para não colidir com registros antigos.
+ *
+ * Executa durante a inicialização do contexto, depois que o Hibernate atualizou o
+ * schema e antes de qualquer inserção (DataLoader ou requisições).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdGeneratorSeeder implements InitializingBean {
+
+    // Deve coincidir com o allocationSize dos @TableGenerator das entidades
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of(
+        "users", "transactions", "coupons", "advantages", "institutions"
+    );
+
+    // Garante que o schema (incluindo id_generators) já foi criado pelo Hibernate
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String table : TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long seed = (maxId != null ? maxId : 0L) + ALLOCATION_SIZE;
+
+            jdbcTemplate.update(
+                "INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                table, seed);
+            log.debug("Gerador de IDs '{}' ajustado (maior ID existente: {})", table, maxId);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.labGCL03.moeda_estudantil.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Garante uma única instância da aplicação por banco, com um lock nomeado do MySQL
+ * (GET_LOCK) preso a uma conexão mantida aberta enquanto a aplicação roda.
+ *
+ * O estoque das promoções relâmpago (FlashSaleInventoryService) e o filtro de códigos de
+ * cupom (CouponCodeFilter) guardam estado em memória que só vale com uma instância: a
+ * subida de uma segunda devolveria ao estoque as reservas em uso pela primeira, e cada uma
+ * recusaria os cupons emitidos pela outra. Se o lock já estiver com outra conexão, a subida
+ * falha antes de qualquer um dos dois tocar no banco.
+ *
+ * O MySQL solta o lock quando a conexão cai (ex.: wait_timeout); a conexão é consultada
+ * periodicamente para mantê-la ativa e o lock é retomado se tiver sido perdido.
+ *
+ * Desligável com app.instance-lock.enabled=false, para testes que sobem mais de um contexto
+ * Spring no mesmo processo.
+ */
+@Component
+@ConditionalOnProperty(name = "app.instance-lock.enabled", matchIfMissing = true)
+@Slf4j
+public class SingleInstanceLock implements InitializingBean, DisposableBean {
+
+    // GET_LOCK vale para o servidor inteiro: o nome inclui o banco
+    private static final String LOCK_NAME = "CONCAT('moeda_estudantil:', DATABASE())";
+
+    private final DataSource dataSource;
+    private Connection connection;
+
+    public SingleInstanceLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public synchronized void afterPropertiesSet() throws SQLException {
+        if (!acquire()) {
+            throw new IllegalStateException(
+                "Outra instância da aplicação já está usando este banco; só uma pode rodar por vez");
+        }
+        log.info("Lock de instância única adquirido");
+    }
+
+    /**
+     * Mantém a conexão do lock ativa; se ela tiver caído, abre outra e tenta retomar o lock.
+     */
+    @Scheduled(fixedDelayString = "${app.instance-lock.check-interval-ms:60000}")
+    public synchronized void check() {
+        try {
+            if (connection != null && holdsLock()) {
+                return;
+            }
+            log.warn("Lock de instância única perdido; tentando retomar");
+            if (acquire()) {
+                log.info("Lock de instância única retomado");
+            } else {
+                log.error("Lock de instância única está com outra instância da aplicação");
+            }
+        } catch (SQLException e) {
+            log.error("Falha ao verificar o lock de instância única: {}", e.getMessage());
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (connection == null) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(" + LOCK_NAME + ")")) {
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("Falha ao liberar o lock de instância única: {}", e.getMessage());
+        }
+        close();
+    }
+
+    private boolean acquire() throws SQLException {
+        close();
+        Connection candidate = dataSource.getConnection();
+        try (PreparedStatement statement = candidate.prepareStatement("SELECT GET_LOCK(" + LOCK_NAME + ", 0)");
+             ResultSet result = statement.executeQuery()) {
+            if (result.next() && result.getInt(1) == 1) {
+                connection = candidate;
+                return true;
+            }
+        } catch (SQLException e) {
+            candidate.close();
+            throw e;
+        }
+        candidate.close();
+        return false;
+    }
+
+    private boolean holdsLock() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                 "SELECT IS_USED_LOCK(" + LOCK_NAME + ") = CONNECTION_ID()");
+             ResultSet result = statement.executeQuery()) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Falha ao fechar a conexão do lock de instância única: {}", e.getMessage());
+        }
+        connection = null;
+    }
+}
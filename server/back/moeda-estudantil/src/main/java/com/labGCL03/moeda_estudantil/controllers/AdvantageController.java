@@ -2,12 +2,18 @@ package com.labGCL03.moeda_estudantil.controllers;
 
 import com.labGCL03.moeda_estudantil.dto.AdvantageRequestDTO;
 import com.labGCL03.moeda_estudantil.dto.AdvantageResponseDTO;
+import com.labGCL03.moeda_estudantil.dto.AdvantageSnapshot;
 import com.labGCL03.moeda_estudantil.dto.AdvantageUpdateDTO;
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
 import com.labGCL03.moeda_estudantil.entities.Advantage;
 import com.labGCL03.moeda_estudantil.exception.ErrorResponse;
+import com.labGCL03.moeda_estudantil.services.AdvantageCatalogService;
+import com.labGCL03.moeda_estudantil.services.AdvantageCatalogService.RenderedCatalog;
 import com.labGCL03.moeda_estudantil.services.AdvantageService;
+import com.labGCL03.moeda_estudantil.util.BoundedTtlCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,11 +21,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,28 +40,76 @@ import java.util.stream.Collectors;
 public class AdvantageController {
 
     private final AdvantageService advantageService;
+    private final AdvantageCatalogService advantageCatalogService;
 
     @Operation(
             summary = "Listar todas as vantagens",
             description = "Retorna uma lista com todas as vantagens cadastradas no sistema. Alunos podem acessar (sem ver quantidade disponível)."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de vantagens retornada com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Lista de vantagens retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = AdvantageResponseDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Catálogo não mudou desde o ETag informado em If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "Bearer Authentication")
     @GetMapping
-    public ResponseEntity<List<AdvantageResponseDTO>> getAllAdvantages() {
-        List<Advantage> advantages = advantageService.findAll();
-        // Filtra apenas vantagens disponíveis para alunos
-        List<AdvantageResponseDTO> response = advantages.stream()
-            .filter(Advantage::isAvailable)
-            .map(adv -> new AdvantageResponseDTO(adv, false, false)) // Não mostra quantidade para alunos
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getAllAdvantages(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        // Apenas vantagens disponíveis e sem quantidade (visão do aluno), já serializadas
+        return renderedResponse(advantageCatalogService.renderAll(), acceptEncoding, webRequest);
+    }
+
+    @Operation(
+            summary = "Consultar catálogo de vantagens",
+            description = "Retorna o catálogo paginado por cursor, com filtros combináveis por empresa, faixa de custo, " +
+                    "disponibilidade e texto. Ordenações: newest (padrão), cost_asc, cost_desc e popularity. " +
+                    "Use o valor de nextCursor, com a mesma ordenação e os mesmos filtros, para buscar a próxima página. " +
+                    "Com texto, apenas as " + AdvantageCatalogService.MAX_TEXT_MATCHES + " correspondências mais relevantes " +
+                    "entram no filtro; quando há mais que isso a resposta traz truncated = true e a ordenação vale só dentro delas. " +
+                    "Alunos podem acessar."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página do catálogo retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor, ordenação ou filtros inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/catalog")
+    public ResponseEntity<CursorPageDTO<AdvantageResponseDTO>> getCatalogPage(
+            @Parameter(description = "ID da empresa") @RequestParam(required = false) Long companyId,
+            @Parameter(description = "Custo mínimo em moedas", example = "10") @RequestParam(required = false) Integer minCost,
+            @Parameter(description = "Custo máximo em moedas", example = "200") @RequestParam(required = false) Integer maxCost,
+            @Parameter(description = "Se true (padrão), apenas vantagens com cupons disponíveis")
+            @RequestParam(defaultValue = "true") boolean availableOnly,
+            @Parameter(description = "Texto para busca no nome, empresa e descrição", example = "desconto")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Ordenação: newest, cost_asc, cost_desc ou popularity", example = "cost_asc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor retornado pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (padrão 20, máximo 100)", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(advantageCatalogService.findPage(companyId, minCost, maxCost, availableOnly, q, sort, cursor, limit));
+    }
+
+    @Operation(
+            summary = "Estatísticas do cache do catálogo",
+            description = "Retorna acertos, faltas, descartes por tamanho, expirações por TTL, invalidações e tamanho atual dos caches do catálogo (snapshots e respostas já serializadas). Apenas ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, BoundedTtlCache.Stats>> getCatalogCacheStats() {
+        return ResponseEntity.ok(advantageCatalogService.stats());
     }
 
     @Operation(
@@ -68,8 +126,8 @@ public class AdvantageController {
     @GetMapping("/{id}")
     public ResponseEntity<AdvantageResponseDTO> getAdvantageById(
             @Parameter(description = "ID da vantagem") @PathVariable Long id) {
-        Advantage advantage = advantageService.findById(id);
-        AdvantageResponseDTO response = new AdvantageResponseDTO(advantage);
+        AdvantageSnapshot advantage = advantageCatalogService.findById(id);
+        AdvantageResponseDTO response = new AdvantageResponseDTO(advantage, false, false);
         
         return ResponseEntity.ok(response);
     }
@@ -79,26 +137,26 @@ public class AdvantageController {
             description = "Retorna todas as vantagens oferecidas por uma empresa específica. Se acessado pela própria empresa, mostra quantidade disponível."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de vantagens retornada com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Lista de vantagens retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = AdvantageResponseDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Lista não mudou desde o ETag informado em If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "404", description = "Empresa não encontrada",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "Bearer Authentication")
     @GetMapping("/company/{companyId}")
-    public ResponseEntity<List<AdvantageResponseDTO>> getAdvantagesByCompany(
+    public ResponseEntity<byte[]> getAdvantagesByCompany(
             @Parameter(description = "ID da empresa") @PathVariable Long companyId,
             @Parameter(description = "Se true, mostra quantidade disponível (apenas para empresas)") 
-            @RequestParam(defaultValue = "false") boolean showQuantity) {
-        List<Advantage> advantages = advantageService.findByCompanyId(companyId);
-        List<AdvantageResponseDTO> response = advantages.stream()
-            // Se showQuantity=true (empresa), mostra todas (incluindo esgotadas)
-            // Se showQuantity=false (aluno), mostra apenas disponíveis
-            .filter(adv -> showQuantity || adv.isAvailable())
-            .map(adv -> new AdvantageResponseDTO(adv, true, showQuantity))
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(response);
+            @RequestParam(defaultValue = "false") boolean showQuantity,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        // Se showQuantity=true (empresa), mostra todas (incluindo esgotadas)
+        // Se showQuantity=false (aluno), mostra apenas disponíveis
+        return renderedResponse(advantageCatalogService.renderByCompanyId(companyId, showQuantity),
+                                acceptEncoding, webRequest);
     }
 
     @Operation(
@@ -119,15 +177,16 @@ public class AdvantageController {
         List<Advantage> advantages = advantageService.findAdvantagesWithinBudget(maxCost);
         List<AdvantageResponseDTO> response = advantages.stream()
             .filter(Advantage::isAvailable)
-            .map(adv -> new AdvantageResponseDTO(adv, false, false))
+            .map(adv -> new AdvantageResponseDTO(advantageCatalogService.snapshot(adv), false, false))
             .collect(Collectors.toList());
         
         return ResponseEntity.ok(response);
     }
 
     @Operation(
-            summary = "Buscar vantagens por nome",
-            description = "Retorna vantagens que contém o texto especificado no nome. Alunos podem acessar (apenas disponíveis)."
+            summary = "Buscar vantagens",
+            description = "Retorna as vantagens mais relevantes para o texto, buscando no nome, na empresa e na descrição. " +
+                    "Ignora acentos e maiúsculas, aceita prefixos e pequenos erros de digitação. Alunos podem acessar (apenas disponíveis)."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de vantagens retornada com sucesso"),
@@ -138,12 +197,12 @@ public class AdvantageController {
     @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "Bearer Authentication")
     @GetMapping("/search")
     public ResponseEntity<List<AdvantageResponseDTO>> searchAdvantagesByName(
-            @Parameter(description = "Texto para busca no nome", example = "desconto") 
+            @Parameter(description = "Texto para busca", example = "desconto") 
             @RequestParam String name) {
         List<Advantage> advantages = advantageService.searchByName(name);
         List<AdvantageResponseDTO> response = advantages.stream()
             .filter(Advantage::isAvailable)
-            .map(adv -> new AdvantageResponseDTO(adv, false, false))
+            .map(adv -> new AdvantageResponseDTO(advantageCatalogService.snapshot(adv), false, false))
             .collect(Collectors.toList());
         
         return ResponseEntity.ok(response);
@@ -169,7 +228,7 @@ public class AdvantageController {
             @Valid @RequestBody AdvantageRequestDTO dto) {
         Advantage advantage = advantageService.create(dto);
         // Empresa pode ver a quantidade disponível na resposta
-        AdvantageResponseDTO response = new AdvantageResponseDTO(advantage, true, true);
+        AdvantageResponseDTO response = new AdvantageResponseDTO(advantageCatalogService.snapshot(advantage), true, true);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -196,7 +255,7 @@ public class AdvantageController {
         
         Advantage advantage = advantageService.update(id, dto);
         // Empresa pode ver a quantidade disponível na resposta
-        AdvantageResponseDTO response = new AdvantageResponseDTO(advantage, true, true);
+        AdvantageResponseDTO response = new AdvantageResponseDTO(advantageCatalogService.snapshot(advantage), true, true);
         
         return ResponseEntity.ok(response);
     }
@@ -220,7 +279,7 @@ public class AdvantageController {
             @RequestBody AdvantageUpdateDTO dto) {
         
         Advantage advantage = advantageService.update(id, dto);
-        AdvantageResponseDTO response = new AdvantageResponseDTO(advantage);
+        AdvantageResponseDTO response = new AdvantageResponseDTO(advantageCatalogService.snapshot(advantage), false, false);
         
         return ResponseEntity.ok(response);
     }
@@ -272,8 +331,41 @@ public class AdvantageController {
         }
         
         Advantage advantage = advantageService.reactivateAdvantage(id, quantity);
-        AdvantageResponseDTO response = new AdvantageResponseDTO(advantage, true, true);
+        AdvantageResponseDTO response = new AdvantageResponseDTO(advantageCatalogService.snapshot(advantage), true, true);
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Escreve o catálogo já serializado: 304 se o ETag bater, gzip pronto quando o cliente aceita.
+     */
+    private ResponseEntity<byte[]> renderedResponse(RenderedCatalog catalog, String acceptEncoding, WebRequest webRequest) {
+        // ETag forte é por representação: o corpo gzip tem o próprio validador
+        boolean gzip = catalog.gzip() != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? catalog.gzipEtag() : catalog.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? catalog.gzip() : catalog.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").equalsIgnoreCase("q=0");
+            }
+        }
+        return false;
+    }
 }
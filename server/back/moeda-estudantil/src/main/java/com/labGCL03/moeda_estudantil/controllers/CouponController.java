@@ -4,6 +4,7 @@ import com.labGCL03.moeda_estudantil.dto.CouponResponseDTO;
 import com.labGCL03.moeda_estudantil.dto.CouponValidationResponseDTO;
 import com.labGCL03.moeda_estudantil.entities.Coupon;
 import com.labGCL03.moeda_estudantil.exception.ErrorResponse;
+import com.labGCL03.moeda_estudantil.services.CouponCodeFilter;
 import com.labGCL03.moeda_estudantil.services.CouponService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,6 +30,7 @@ import java.util.stream.Collectors;
 public class CouponController {
 
     private final CouponService couponService;
+    private final CouponCodeFilter couponCodeFilter;
 
     @Operation(
             summary = "Validar cupom",
@@ -35,7 +38,7 @@ public class CouponController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cupom válido"),
-            @ApiResponse(responseCode = "400", description = "Cupom já foi utilizado",
+            @ApiResponse(responseCode = "400", description = "Código malformado ou cupom já utilizado",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "404", description = "Cupom não encontrado",
@@ -44,7 +47,7 @@ public class CouponController {
     @SecurityRequirement(name = "Bearer Authentication")
     @GetMapping("/validate/{code}")
     public ResponseEntity<CouponValidationResponseDTO> validateCoupon(
-            @Parameter(description = "Código do cupom", example = "A3B7-9C2F", required = true)
+            @Parameter(description = "Código do cupom", example = "7K3QX-9M2AR", required = true)
             @PathVariable String code) {
         
         Coupon coupon = couponService.validateCoupon(code);
@@ -59,7 +62,7 @@ public class CouponController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cupom marcado como utilizado com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Cupom já foi utilizado anteriormente",
+            @ApiResponse(responseCode = "400", description = "Código malformado ou cupom já utilizado anteriormente",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Sem permissão (apenas COMPANY)"),
@@ -69,7 +72,7 @@ public class CouponController {
     @SecurityRequirement(name = "Bearer Authentication")
     @PatchMapping("/use/{code}")
     public ResponseEntity<Void> markCouponAsUsed(
-            @Parameter(description = "Código do cupom", example = "A3B7-9C2F", required = true)
+            @Parameter(description = "Código do cupom", example = "7K3QX-9M2AR", required = true)
             @PathVariable String code) {
         
         couponService.markCouponAsUsed(code);
@@ -77,6 +80,21 @@ public class CouponController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation(
+            summary = "Estado do filtro de códigos",
+            description = "Retorna a saturação e a taxa estimada de falso positivo do filtro de Bloom usado na validação de cupons, e quantas consultas ele respondeu sem ir ao banco. Apenas ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado do filtro retornado com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/filter/stats")
+    public ResponseEntity<Map<String, Object>> getCodeFilterStats() {
+        return ResponseEntity.ok(couponCodeFilter.stats());
+    }
+
     @Operation(
             summary = "Buscar cupons de um aluno",
             description = "Retorna todos os cupons gerados por um aluno específico, ordenados por data de geração (mais recentes primeiro)."
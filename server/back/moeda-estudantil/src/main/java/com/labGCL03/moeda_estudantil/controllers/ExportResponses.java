@@ -0,0 +1,40 @@
+package com.labGCL03.moeda_estudantil.controllers;
+
+import com.labGCL03.moeda_estudantil.enums.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monta a resposta de download dos extratos exportados (anexo, tipo de conteúdo e
+ * compressão gzip opcional aplicada enquanto o corpo é escrito).
+ */
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> attachment(String baseName, ExportFormat format,
+                                                            boolean gzip, StreamingResponseBody body) {
+        String fileName = baseName + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody payload = body;
+        if (gzip) {
+            payload = out -> {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+                body.writeTo(compressed);
+                compressed.finish();
+                compressed.flush();
+            };
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8"))
+                .body(payload);
+    }
+}
@@ -1,5 +1,10 @@
 package com.labGCL03.moeda_estudantil.controllers;
 
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+import com.labGCL03.moeda_estudantil.services.ImageStore;
+import com.labGCL03.moeda_estudantil.services.ImageVariantService;
+import com.labGCL03.moeda_estudantil.util.ImageFormats;
+import com.labGCL03.moeda_estudantil.util.ImageUrls;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -7,13 +12,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Base64;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,17 +27,23 @@ import java.util.Map;
 @RequestMapping("/api/upload")
 @CrossOrigin(origins = "*")
 @Tag(name = "Upload", description = "Endpoints para upload de arquivos")
+@RequiredArgsConstructor
 @Slf4j
 public class FileUploadController {
 
+    private final ImageStore imageStore;
+    private final ImageVariantService imageVariantService;
+
     @Operation(
-        summary = "Upload de imagem em Base64",
-        description = "Converte uma imagem para Base64 e retorna a string codificada. Formatos aceitos: JPG, PNG, GIF. Tamanho máximo: 5MB."
+        summary = "Upload de imagem",
+        description = "Grava a imagem no armazenamento de imagens e retorna seu identificador e a URL pública. " +
+                "O formato é verificado pelo conteúdo do arquivo. Formatos aceitos: JPG, PNG, GIF, WEBP. Tamanho máximo: 5MB. " +
+                "Use a URL retornada no campo photo ao criar ou atualizar uma vantagem."
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Imagem convertida com sucesso",
+            description = "Imagem gravada com sucesso",
             content = @Content(schema = @Schema(implementation = Map.class))
         ),
         @ApiResponse(
@@ -50,42 +62,26 @@ public class FileUploadController {
     @SecurityRequirement(name = "Bearer Authentication")
     @PostMapping("/image")
     public ResponseEntity<?> uploadImage(@RequestParam("file") MultipartFile file) {
-        try {
-            // Validar se o arquivo está vazio
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("message", "Arquivo vazio"));
-            }
-
-            // Validar tipo de arquivo
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                return ResponseEntity.badRequest().body(Map.of("message", "Apenas arquivos de imagem são aceitos"));
-            }
-
-            // Validar tamanho (5MB)
-            if (file.getSize() > 5 * 1024 * 1024) {
-                return ResponseEntity.badRequest().body(Map.of("message", "O arquivo deve ter no máximo 5MB"));
-            }
-
-            // Converter para Base64
-            byte[] imageBytes = file.getBytes();
-            String base64Image = Base64.getEncoder().encodeToString(imageBytes);
-            
-            // Criar data URL completo
-            String dataUrl = "data:" + contentType + ";base64," + base64Image;
+        // O multipart já está em disco (file-size-threshold=0); aqui ele é lido em blocos
+        // direto para o ImageStore, sem carregar a imagem inteira no heap
+        try (InputStream content = file.getInputStream()) {
+            String key = imageStore.store(content);
+            imageVariantService.generateVariants(key);
 
-            // Retornar resposta
             Map<String, String> response = new HashMap<>();
-            response.put("photo", dataUrl);
+            response.put("id", key);
+            response.put("url", ImageUrls.publicUrl(key));
             response.put("photoName", file.getOriginalFilename());
-            response.put("photoType", contentType);
+            response.put("photoType", ImageFormats.contentTypeForKey(key));
             response.put("size", String.valueOf(file.getSize()));
 
-            log.info("Imagem convertida para Base64 com sucesso: {} - Tamanho: {} bytes", 
-                     file.getOriginalFilename(), file.getSize());
+            log.info("Imagem armazenada: {} ({}) - Tamanho: {} bytes",
+                     key, file.getOriginalFilename(), file.getSize());
 
             return ResponseEntity.ok(response);
 
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             log.error("Erro ao processar arquivo", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
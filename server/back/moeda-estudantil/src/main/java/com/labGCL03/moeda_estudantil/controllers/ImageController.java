@@ -0,0 +1,83 @@
+package com.labGCL03.moeda_estudantil.controllers;
+
+import com.labGCL03.moeda_estudantil.enums.ImageSize;
+import com.labGCL03.moeda_estudantil.exception.ResourceNotFoundException;
+import com.labGCL03.moeda_estudantil.services.ImageStore;
+import com.labGCL03.moeda_estudantil.services.ImageVariantService;
+import com.labGCL03.moeda_estudantil.util.ImageUrls;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Tag(name = "Imagens", description = "Acesso às imagens armazenadas, no tamanho pedido")
+public class ImageController {
+
+    private final ImageStore imageStore;
+    private final ImageVariantService imageVariantService;
+
+    @Operation(
+        summary = "Obter imagem",
+        description = "Redireciona para o arquivo da imagem no tamanho pedido (thumbnail, medium ou original). " +
+                "Enquanto a variante ainda não foi gerada, redireciona para o original. Mantido para links " +
+                "antigos: as respostas da API já trazem a URL direta do arquivo. Acesso público."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "302",
+            description = "Redirecionamento para o arquivo da imagem"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Tamanho inválido"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Imagem não encontrada"
+        )
+    })
+    @GetMapping("/{key:.+}")
+    public ResponseEntity<Void> getImage(
+            @Parameter(description = "Identificador da imagem", required = true) @PathVariable String key,
+            @Parameter(description = "Tamanho: thumbnail, medium ou original", example = "thumbnail")
+            @RequestParam(required = false) String size) {
+
+        ImageSize imageSize = ImageSize.from(size);
+        if (!ImageUrls.isValidKey(key) || ImageUrls.isVariantKey(key) || !imageStore.exists(key)) {
+            throw new ResourceNotFoundException("Imagem não encontrada: " + key);
+        }
+
+        if (imageSize.isVariant() && imageVariantService.isSupported(key)) {
+            Optional<String> variant = imageVariantService.findVariant(key, imageSize);
+            if (variant.isPresent()) {
+                // A variante de uma chave nunca muda, então o redirecionamento pode ficar em cache
+                return redirect(variant.get(), CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic());
+            }
+            imageVariantService.generateVariants(key);
+            return redirect(key, CacheControl.noCache());
+        }
+
+        return redirect(key, CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic());
+    }
+
+    private static ResponseEntity<Void> redirect(String key, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(ImageUrls.publicUrl(key)))
+                .cacheControl(cacheControl)
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.labGCL03.moeda_estudantil.controllers;
 
 import com.labGCL03.moeda_estudantil.dto.InstitutionDTO;
+import com.labGCL03.moeda_estudantil.enums.ExportFormat;
 import com.labGCL03.moeda_estudantil.services.InstitutionService;
+import com.labGCL03.moeda_estudantil.services.TransactionExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,6 +13,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +25,7 @@ import java.util.List;
 public class InstitutionController {
 
     private final InstitutionService institutionService;
+    private final TransactionExportService transactionExportService;
 
     @GetMapping
     @Operation(
@@ -107,4 +111,39 @@ public class InstitutionController {
         return ResponseEntity.ok(institution);
     }
 
+    @GetMapping("/{id}/transactions/export")
+    @Operation(
+        summary = "Exportar extrato da instituição",
+        description = "Gera o extrato de todas as transações da instituição (envios, créditos semestrais e resgates) em CSV ou NDJSON, " +
+                "do mais recente para o mais antigo. O arquivo é transmitido conforme é lido do banco; " +
+                "use gzip=true para receber o arquivo compactado. Requer role TEACHER ou ADMIN."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Extrato transmitido com sucesso"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato inválido"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autenticado"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Instituição não encontrada"
+        )
+    })
+    @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> exportInstitutionTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.attachment("extrato-instituicao-" + id, exportFormat, gzip,
+                transactionExportService.institutionStatement(id, exportFormat));
+    }
+
 }
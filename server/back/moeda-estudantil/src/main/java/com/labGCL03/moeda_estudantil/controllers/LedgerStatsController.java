@@ -0,0 +1,95 @@
+package com.labGCL03.moeda_estudantil.controllers;
+
+import com.labGCL03.moeda_estudantil.dto.LedgerTotalsDTO;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import com.labGCL03.moeda_estudantil.exception.ErrorResponse;
+import com.labGCL03.moeda_estudantil.services.LedgerRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@RestController
+@RequestMapping("/api/transactions")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Tag(name = "Estatísticas de transações", description = "Totais agregados do razão de moedas, lidos dos resumos diários")
+public class LedgerStatsController {
+
+    private final LedgerRollupService ledgerRollupService;
+
+    @Operation(
+            summary = "Totais de um usuário",
+            description = "Retorna o total de moedas recebidas em créditos e enviadas a alunos pelo usuário. Requer autenticação."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totais retornados com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/users/{id}/totals")
+    public ResponseEntity<LedgerTotalsDTO> getUserTotals(
+            @Parameter(description = "ID do usuário", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(new LedgerTotalsDTO(id,
+                ledgerRollupService.getTotalReceivedByUser(id),
+                ledgerRollupService.getTotalSentByUser(id)));
+    }
+
+    @Operation(
+            summary = "Contar transações por tipo",
+            description = "Retorna a quantidade de transações do tipo informado entre duas datas (inclusive), com ou sem instituição. Aceita data (yyyy-MM-dd, o dia inteiro) ou data e hora (yyyy-MM-ddTHH:mm:ss). Requer autenticação."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quantidade retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/count")
+    public ResponseEntity<Long> countByType(
+            @Parameter(description = "Tipo da transação", example = "SENT", required = true)
+            @RequestParam TransactionType type,
+            @Parameter(description = "Início (yyyy-MM-dd ou yyyy-MM-ddTHH:mm:ss)", example = "2025-08-01", required = true)
+            @RequestParam String startDate,
+            @Parameter(description = "Fim, inclusive (yyyy-MM-dd ou yyyy-MM-ddTHH:mm:ss)", example = "2025-12-31", required = true)
+            @RequestParam String endDate) {
+        return ResponseEntity.ok(ledgerRollupService.countTransactionsByTypeAndDateRange(
+                type, parseBound(startDate, LocalTime.MIDNIGHT), parseBound(endDate, LocalTime.MAX)));
+    }
+
+    // Uma data sem hora vale pelo dia inteiro: início à meia-noite, fim no último instante do dia
+    private static LocalDateTime parseBound(String value, LocalTime timeForDateOnly) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atTime(timeForDateOnly);
+        }
+        return LocalDateTime.parse(value);
+    }
+
+    @Operation(
+            summary = "Recalcular resumos diários",
+            description = "Recalcula todos os totais diários a partir das transações gravadas. Comando de reparo; requer role ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Resumos recalculados"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups() {
+        ledgerRollupService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,16 +2,20 @@ package com.labGCL03.moeda_estudantil.controllers;
 
 import com.labGCL03.moeda_estudantil.dto.PurchaseRequestDTO;
 import com.labGCL03.moeda_estudantil.dto.PurchaseResponseDTO;
+import com.labGCL03.moeda_estudantil.dto.RedemptionStatusDTO;
 import com.labGCL03.moeda_estudantil.dto.StudentRequestDTO;
 import com.labGCL03.moeda_estudantil.dto.StudentResponseDTO;
 import com.labGCL03.moeda_estudantil.dto.StudentUpdateDTO;
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
 import com.labGCL03.moeda_estudantil.dto.TransactionResponseDTO;
 import com.labGCL03.moeda_estudantil.entities.Coupon;
 import com.labGCL03.moeda_estudantil.entities.Student;
-import com.labGCL03.moeda_estudantil.entities.Transaction;
+import com.labGCL03.moeda_estudantil.enums.ExportFormat;
 import com.labGCL03.moeda_estudantil.exception.ErrorResponse;
 import com.labGCL03.moeda_estudantil.services.CouponService;
+import com.labGCL03.moeda_estudantil.services.RedemptionQueueService;
 import com.labGCL03.moeda_estudantil.services.StudentService;
+import com.labGCL03.moeda_estudantil.services.TransactionExportService;
 import com.labGCL03.moeda_estudantil.services.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -27,8 +31,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/students")
@@ -40,6 +48,8 @@ public class StudentController {
     private final StudentService studentService;
     private final CouponService couponService;
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final RedemptionQueueService redemptionQueueService;
 
     @Operation(
             summary = "Listar todos os alunos",
@@ -198,6 +208,70 @@ public class StudentController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Resgatar vantagem de forma assíncrona",
+            description = "Valida o pedido (saldo e estoque) e o coloca na fila de resgates, respondendo 202 com o ID do pedido. " +
+                    "Acompanhe o resultado em GET /api/students/purchase/requests/{id}. Requer role STUDENT."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Pedido de resgate aceito e enfileirado"),
+            @ApiResponse(responseCode = "400", description = "Saldo insuficiente, vantagem esgotada ou dados inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sem permissão (requer STUDENT)"),
+            @ApiResponse(responseCode = "404", description = "Aluno ou vantagem não encontrados",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Fila de resgates cheia; tente novamente após Retry-After",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping("/purchase/async")
+    public ResponseEntity<RedemptionStatusDTO> purchaseAdvantageAsync(
+            @Parameter(description = "Dados da compra (IDs do aluno e da vantagem)", required = true)
+            @Valid @RequestBody PurchaseRequestDTO dto) {
+        
+        RedemptionStatusDTO status = redemptionQueueService.submit(dto.getStudentId(), dto.getAdvantageId());
+        
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/students/purchase/requests/" + status.getId()))
+            .body(status);
+    }
+
+    @Operation(
+            summary = "Consultar resgate assíncrono",
+            description = "Retorna a situação de um pedido de resgate. Com waitSeconds (máximo 30), a resposta aguarda " +
+                    "a conclusão do resgate ou o fim do prazo (long polling). Requer autenticação."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação do pedido retornada com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "404", description = "Pedido não encontrado ou expirado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/purchase/requests/{requestId}")
+    public DeferredResult<RedemptionStatusDTO> getPurchaseStatus(
+            @Parameter(description = "ID do pedido de resgate", required = true) @PathVariable String requestId,
+            @Parameter(description = "Segundos para aguardar a conclusão (0 = responde na hora)", example = "10")
+            @RequestParam(defaultValue = "0") long waitSeconds) {
+        return redemptionQueueService.awaitStatus(requestId, waitSeconds);
+    }
+
+    @Operation(
+            summary = "Estado da fila de resgates",
+            description = "Retorna a profundidade da fila por worker e os totais de resgates concluídos, falhos e recusados. Apenas ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado da fila retornado com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/purchase/queue")
+    public ResponseEntity<Map<String, Object>> getPurchaseQueueStats() {
+        return ResponseEntity.ok(redemptionQueueService.stats());
+    }
+
     @Operation(
             summary = "Buscar transações do aluno",
             description = "Retorna o histórico de transações de um aluno (moedas recebidas e gastas). Requer autenticação. Aceita parâmetros opcionais de data para filtrar."
@@ -217,20 +291,81 @@ public class StudentController {
             @Parameter(description = "Data final do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
             @RequestParam(required = false) String endDate) {
         
-        List<Transaction> transactions;
+        List<TransactionResponseDTO> response;
         
         if (startDate != null && endDate != null) {
             java.time.LocalDateTime start = java.time.LocalDateTime.parse(startDate);
             java.time.LocalDateTime end = java.time.LocalDateTime.parse(endDate);
-            transactions = transactionService.getUserTransactionHistory(id, start, end);
+            response = transactionService.getUserTransactionHistory(id, start, end);
         } else {
-            transactions = transactionService.getUserTransactionHistory(id);
+            response = transactionService.getUserTransactionHistory(id);
         }
         
-        List<TransactionResponseDTO> response = transactions.stream()
-            .map(TransactionResponseDTO::new)
-            .toList();
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Buscar transações do aluno (paginado)",
+            description = "Retorna o histórico de transações do aluno paginado por cursor, do mais recente para o mais antigo. " +
+                    "Use o valor de nextCursor para buscar a próxima página. Requer autenticação."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de transações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou parâmetros inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/{id}/transactions/page")
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> getStudentTransactionsPage(
+            @Parameter(description = "ID do aluno", required = true) @PathVariable Long id,
+            @Parameter(description = "Data inicial do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String startDate,
+            @Parameter(description = "Data final do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String endDate,
+            @Parameter(description = "Cursor retornado pela página anterior", required = false)
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (padrão 20, máximo 100)", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        
+        java.time.LocalDateTime start = startDate != null ? java.time.LocalDateTime.parse(startDate) : null;
+        java.time.LocalDateTime end = endDate != null ? java.time.LocalDateTime.parse(endDate) : null;
+        
+        return ResponseEntity.ok(transactionService.getUserTransactionPage(id, start, end, cursor, limit));
+    }
+
+    @Operation(
+            summary = "Exportar extrato do aluno",
+            description = "Gera o extrato completo de transações do aluno em CSV ou NDJSON, do mais recente para o mais antigo. " +
+                    "O arquivo é transmitido em blocos conforme é lido do banco; use gzip=true para receber o arquivo compactado. Requer autenticação."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Extrato transmitido com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Formato ou parâmetros inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "404", description = "Aluno não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/{id}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportStudentTransactions(
+            @Parameter(description = "ID do aluno", required = true) @PathVariable Long id,
+            @Parameter(description = "Data inicial do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String startDate,
+            @Parameter(description = "Data final do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String endDate,
+            @Parameter(description = "Formato do arquivo: csv (padrão) ou ndjson", example = "csv")
+            @RequestParam(required = false) String format,
+            @Parameter(description = "Compactar o arquivo com gzip", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        java.time.LocalDateTime start = startDate != null ? java.time.LocalDateTime.parse(startDate) : null;
+        java.time.LocalDateTime end = endDate != null ? java.time.LocalDateTime.parse(endDate) : null;
+        ExportFormat exportFormat = ExportFormat.from(format);
+        
+        return ExportResponses.attachment("extrato-aluno-" + id, exportFormat, gzip,
+                transactionExportService.studentStatement(id, start, end, exportFormat));
+    }
+
 }
@@ -1,16 +1,19 @@
 package com.labGCL03.moeda_estudantil.controllers;
 
+import com.labGCL03.moeda_estudantil.dto.BulkTransferCoinsDTO;
 import com.labGCL03.moeda_estudantil.dto.StudentResponseDTO;
 import com.labGCL03.moeda_estudantil.dto.TeacherResponseDTO;
 import com.labGCL03.moeda_estudantil.dto.TeacherUpdateDTO;
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
 import com.labGCL03.moeda_estudantil.dto.TransactionResponseDTO;
 import com.labGCL03.moeda_estudantil.dto.TransferCoinsDTO;
 import com.labGCL03.moeda_estudantil.entities.Student;
 import com.labGCL03.moeda_estudantil.entities.Teacher;
-import com.labGCL03.moeda_estudantil.entities.Transaction;
+import com.labGCL03.moeda_estudantil.enums.ExportFormat;
 import com.labGCL03.moeda_estudantil.exception.ErrorResponse;
 import com.labGCL03.moeda_estudantil.services.StudentService;
 import com.labGCL03.moeda_estudantil.services.TeacherService;
+import com.labGCL03.moeda_estudantil.services.TransactionExportService;
 import com.labGCL03.moeda_estudantil.services.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -24,6 +27,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -36,6 +40,7 @@ public class TeacherController {
 
     private final TeacherService teacherService;
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
     private final StudentService studentService;
 
     @Operation(
@@ -110,6 +115,32 @@ public class TeacherController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation(
+            summary = "Transferir moedas para vários alunos",
+            description = "Permite que um professor recompense vários alunos de uma só vez. O professor é debitado pelo total " +
+                    "e todas as transferências são gravadas na mesma transação (tudo ou nada). Requer role TEACHER."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transferências realizadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Saldo insuficiente ou dados inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sem permissão (requer TEACHER)"),
+            @ApiResponse(responseCode = "404", description = "Professor ou aluno não encontrados",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping("/{id}/transfer/bulk")
+    public ResponseEntity<Void> transferCoinsBulk(
+            @Parameter(description = "ID do professor", required = true) @PathVariable Long id,
+            @Parameter(description = "Lista de transferências", required = true)
+            @Valid @RequestBody BulkTransferCoinsDTO dto) {
+        
+        transactionService.sendCoinsBulk(id, dto.getTransfers());
+        
+        return ResponseEntity.ok().build();
+    }
+
     @Operation(
             summary = "Obter saldo do professor",
             description = "Retorna o saldo atual de moedas do professor. Requer autenticação."
@@ -147,22 +178,83 @@ public class TeacherController {
             @Parameter(description = "Data final do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
             @RequestParam(required = false) String endDate) {
         
-        List<Transaction> transactions;
+        List<TransactionResponseDTO> response;
         
         if (startDate != null && endDate != null) {
             java.time.LocalDateTime start = java.time.LocalDateTime.parse(startDate);
             java.time.LocalDateTime end = java.time.LocalDateTime.parse(endDate);
-            transactions = transactionService.getUserTransactionHistory(id, start, end);
+            response = transactionService.getUserTransactionHistory(id, start, end);
         } else {
-            transactions = transactionService.getUserTransactionHistory(id);
+            response = transactionService.getUserTransactionHistory(id);
         }
         
-        List<TransactionResponseDTO> response = transactions.stream()
-                .map(TransactionResponseDTO::new)
-                .toList();
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Buscar transações do professor (paginado)",
+            description = "Retorna o histórico de transações do professor paginado por cursor, do mais recente para o mais antigo. " +
+                    "Use o valor de nextCursor para buscar a próxima página. Requer autenticação."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de transações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou parâmetros inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/{id}/transactions/page")
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> getTransactionsPage(
+            @Parameter(description = "ID do professor", required = true) @PathVariable Long id,
+            @Parameter(description = "Data inicial do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String startDate,
+            @Parameter(description = "Data final do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String endDate,
+            @Parameter(description = "Cursor retornado pela página anterior", required = false)
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (padrão 20, máximo 100)", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        
+        java.time.LocalDateTime start = startDate != null ? java.time.LocalDateTime.parse(startDate) : null;
+        java.time.LocalDateTime end = endDate != null ? java.time.LocalDateTime.parse(endDate) : null;
+        
+        return ResponseEntity.ok(transactionService.getUserTransactionPage(id, start, end, cursor, limit));
+    }
+
+    @Operation(
+            summary = "Exportar extrato do professor",
+            description = "Gera o extrato completo de transações do professor em CSV ou NDJSON, do mais recente para o mais antigo. " +
+                    "O arquivo é transmitido em blocos conforme é lido do banco; use gzip=true para receber o arquivo compactado. Requer autenticação."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Extrato transmitido com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Formato ou parâmetros inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "404", description = "Professor não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/{id}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Parameter(description = "ID do professor", required = true) @PathVariable Long id,
+            @Parameter(description = "Data inicial do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String startDate,
+            @Parameter(description = "Data final do filtro (formato ISO: yyyy-MM-dd'T'HH:mm:ss)", required = false) 
+            @RequestParam(required = false) String endDate,
+            @Parameter(description = "Formato do arquivo: csv (padrão) ou ndjson", example = "csv")
+            @RequestParam(required = false) String format,
+            @Parameter(description = "Compactar o arquivo com gzip", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        java.time.LocalDateTime start = startDate != null ? java.time.LocalDateTime.parse(startDate) : null;
+        java.time.LocalDateTime end = endDate != null ? java.time.LocalDateTime.parse(endDate) : null;
+        ExportFormat exportFormat = ExportFormat.from(format);
+        
+        return ExportResponses.attachment("extrato-professor-" + id, exportFormat, gzip,
+                transactionExportService.teacherStatement(id, start, end, exportFormat));
+    }
+
     @Operation(
             summary = "Atualizar perfil do professor",
             description = "Atualiza os dados do professor. Requer role TEACHER (próprio perfil) ou ADMIN."
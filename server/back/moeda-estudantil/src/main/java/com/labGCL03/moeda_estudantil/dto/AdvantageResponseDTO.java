@@ -1,6 +1,7 @@
 package com.labGCL03.moeda_estudantil.dto;
 
 import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.util.ImageUrls;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,9 +30,12 @@ public class AdvantageResponseDTO {
     @Schema(description = "Quantidade disponível de cupons (visível apenas para empresas)", example = "50")
     private Integer availableQuantity;
 
-    @Schema(description = "Imagem da vantagem em Base64", example = "data:image/jpeg;base64,/9j/4AAQSkZJRg...")
+    @Schema(description = "URL da imagem da vantagem em tamanho médio", example = "http://localhost:8080/uploads/images/3f/a2/3fa2c1...e1_w480.jpg")
     private String photo;
 
+    @Schema(description = "URL da miniatura da imagem", example = "http://localhost:8080/uploads/images/3f/a2/3fa2c1...e1_w160.jpg")
+    private String thumbnailUrl;
+
     @Schema(description = "Nome do arquivo da foto", example = "desconto.jpg")
     private String photoName;
 
@@ -47,6 +51,9 @@ public class AdvantageResponseDTO {
     @Schema(description = "Quantidade de vezes que foi resgatada", example = "15")
     private Integer timesRedeemed;
 
+    @Schema(description = "Promoção relâmpago", example = "false")
+    private boolean flashSale;
+
     @Schema(description = "Data de criação", example = "2025-11-03T10:00:00")
     private LocalDateTime createdAt;
 
@@ -67,19 +74,26 @@ public class AdvantageResponseDTO {
      * @param showAvailableQuantity Se deve mostrar a quantidade disponível (apenas para empresas)
      */
     public AdvantageResponseDTO(Advantage advantage, boolean includeTimesRedeemed, boolean showAvailableQuantity) {
-        this.id = advantage.getId();
-        this.name = advantage.getName();
-        this.description = advantage.getDescription();
-        this.costInCoins = advantage.getCostInCoins();
-        this.availableQuantity = showAvailableQuantity ? advantage.getAvailableQuantity() : null;
-        this.photo = advantage.getPhoto();
-        this.photoName = advantage.getPhotoName();
-        this.photoType = advantage.getPhotoType();
-        this.companyId = advantage.getCompany() != null ? advantage.getCompany().getId() : null;
-        this.companyName = advantage.getCompany() != null ? advantage.getCompany().getName() : null;
-        // Evitar acesso a coleções lazy durante compra - definir como null ou 0 por padrão
-        this.timesRedeemed = includeTimesRedeemed ? advantage.getTimesRedeemed() : 0;
-        this.createdAt = advantage.getCreatedAt();
-        this.updatedAt = advantage.getUpdatedAt();
+        // Sem variantes resolvidas as duas URLs apontam para o original; o catálogo usa
+        // AdvantageCatalogService.snapshot, que resolve as variantes prontas
+        this(AdvantageSnapshot.of(advantage), includeTimesRedeemed, showAvailableQuantity);
+    }
+
+    public AdvantageResponseDTO(AdvantageSnapshot snapshot, boolean includeTimesRedeemed, boolean showAvailableQuantity) {
+        this.id = snapshot.id();
+        this.name = snapshot.name();
+        this.description = snapshot.description();
+        this.costInCoins = snapshot.costInCoins();
+        this.availableQuantity = showAvailableQuantity ? snapshot.availableQuantity() : null;
+        this.photo = ImageUrls.publicUrl(snapshot.mediumPhotoKey());
+        this.thumbnailUrl = ImageUrls.publicUrl(snapshot.thumbnailPhotoKey());
+        this.photoName = snapshot.photoName();
+        this.photoType = snapshot.photoType();
+        this.companyId = snapshot.companyId();
+        this.companyName = snapshot.companyName();
+        this.timesRedeemed = includeTimesRedeemed ? snapshot.timesRedeemed() : 0;
+        this.flashSale = snapshot.flashSale();
+        this.createdAt = snapshot.createdAt();
+        this.updatedAt = snapshot.updatedAt();
     }
 }
@@ -0,0 +1,64 @@
+package com.labGCL03.moeda_estudantil.dto;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cópia imutável de uma vantagem, sem vínculo com a sessão do Hibernate, usada pelo cache
+ * do catálogo. Guarda as chaves de imagem já resolvidas para cada tamanho (a variante, se
+ * pronta, ou o original); as URLs são montadas só na conversão para AdvantageResponseDTO.
+ */
+public record AdvantageSnapshot(
+        Long id,
+        String name,
+        String description,
+        Integer costInCoins,
+        Integer availableQuantity,
+        String photoKey,
+        String mediumPhotoKey,
+        String thumbnailPhotoKey,
+        String photoName,
+        String photoType,
+        Long companyId,
+        String companyName,
+        int timesRedeemed,
+        boolean flashSale,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /**
+     * Sem variantes resolvidas: os dois tamanhos apontam para o original.
+     * A empresa deve estar carregada (fetch join).
+     */
+    public static AdvantageSnapshot of(Advantage advantage) {
+        return of(advantage, advantage.getPhotoKey(), advantage.getPhotoKey());
+    }
+
+    /**
+     * A empresa deve estar carregada (fetch join).
+     */
+    public static AdvantageSnapshot of(Advantage advantage, String mediumPhotoKey, String thumbnailPhotoKey) {
+        return new AdvantageSnapshot(
+                advantage.getId(),
+                advantage.getName(),
+                advantage.getDescription(),
+                advantage.getCostInCoins(),
+                advantage.getAvailableQuantity(),
+                advantage.getPhotoKey(),
+                mediumPhotoKey,
+                thumbnailPhotoKey,
+                advantage.getPhotoName(),
+                advantage.getPhotoType(),
+                advantage.getCompany() != null ? advantage.getCompany().getId() : null,
+                advantage.getCompany() != null ? advantage.getCompany().getName() : null,
+                advantage.getTimesRedeemed(),
+                advantage.isFlashSale(),
+                advantage.getCreatedAt(),
+                advantage.getUpdatedAt());
+    }
+
+    public boolean isAvailable() {
+        return availableQuantity == null || availableQuantity > 0;
+    }
+}
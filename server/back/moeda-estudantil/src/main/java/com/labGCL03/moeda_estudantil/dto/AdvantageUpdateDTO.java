@@ -26,10 +26,13 @@ public class AdvantageUpdateDTO {
     @Min(value = 0, message = "Quantidade disponível não pode ser negativa")
     private Integer availableQuantity;
 
-    @Schema(description = "Imagem da vantagem em Base64 (com prefixo data:image/...;base64,)", 
+    @Schema(description = "Imagem da vantagem em Base64 (com prefixo data:image/...;base64,) ou URL de imagem já enviada; vazio remove a foto", 
             example = "data:image/jpeg;base64,/9j/4AAQSkZJRg...")
     private String photo;
 
+    @Schema(description = "Promoção relâmpago: estoque reservado em memória para suportar picos de resgates", example = "false")
+    private Boolean flashSale;
+
     @Schema(description = "Nome do arquivo da foto", example = "desconto.jpg")
     private String photoName;
 
@@ -0,0 +1,23 @@
+package com.labGCL03.moeda_estudantil.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dados para transferência de moedas de um professor para vários alunos de uma só vez")
+public class BulkTransferCoinsDTO {
+
+    @Schema(description = "Lista de transferências (aluno, quantidade e motivo)", required = true)
+    @NotEmpty(message = "Informe ao menos uma transferência")
+    @Size(max = 500, message = "Máximo de 500 transferências por requisição")
+    private List<@Valid TransferCoinsDTO> transfers;
+}
@@ -0,0 +1,30 @@
+package com.labGCL03.moeda_estudantil.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de resultados com paginação por cursor")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Itens da página atual")
+    private List<T> items;
+
+    @Schema(description = "Cursor opaco para buscar a próxima página (null quando não há mais itens)",
+            example = "MjAyNS0xMS0xMFQxNDozMDowMHw0Mg")
+    private String nextCursor;
+
+    @Schema(description = "true quando o resultado foi limitado (ex.: busca textual com mais correspondências " +
+            "que o teto) e a paginação não cobre todos os itens que atendem aos filtros", example = "false")
+    private boolean truncated;
+
+    public CursorPageDTO(List<T> items, String nextCursor) {
+        this(items, nextCursor, false);
+    }
+}
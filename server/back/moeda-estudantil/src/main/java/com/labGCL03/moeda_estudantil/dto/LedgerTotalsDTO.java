@@ -0,0 +1,22 @@
+package com.labGCL03.moeda_estudantil.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Totais acumulados de moedas de um usuário")
+public class LedgerTotalsDTO {
+
+    @Schema(description = "ID do usuário", example = "2")
+    private Long userId;
+
+    @Schema(description = "Total recebido em créditos (tipo RECEIVED)", example = "3000")
+    private Long totalReceived;
+
+    @Schema(description = "Total enviado a alunos (tipo SENT)", example = "1250")
+    private Long totalSent;
+}
@@ -0,0 +1,43 @@
+package com.labGCL03.moeda_estudantil.dto;
+
+import com.labGCL03.moeda_estudantil.enums.RedemptionStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Situação de um resgate enfileirado")
+public class RedemptionStatusDTO {
+
+    @Schema(description = "ID do pedido de resgate", example = "7f6c2a9e-2f4b-4d8e-9a51-3c0f1e2d4b6a")
+    private String id;
+
+    @Schema(description = "Situação: QUEUED, PROCESSING, COMPLETED ou FAILED", example = "COMPLETED")
+    private RedemptionStatus status;
+
+    @Schema(description = "ID do aluno", example = "1")
+    private Long studentId;
+
+    @Schema(description = "ID da vantagem", example = "1")
+    private Long advantageId;
+
+    @Schema(description = "Código do cupom gerado (quando COMPLETED)", example = "A1B2C3D4")
+    private String couponCode;
+
+    @Schema(description = "Motivo da falha (quando FAILED)", example = "Não há mais cupons disponíveis para esta vantagem")
+    private String error;
+
+    @Schema(description = "Posição aproximada na fila da vantagem (quando QUEUED)", example = "3")
+    private Integer queuePosition;
+
+    @Schema(description = "Data do pedido", example = "2025-11-03T10:00:00")
+    private LocalDateTime requestedAt;
+
+    @Schema(description = "Data de conclusão", example = "2025-11-03T10:00:01")
+    private LocalDateTime finishedAt;
+}
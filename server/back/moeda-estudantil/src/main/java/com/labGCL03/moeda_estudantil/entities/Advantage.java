@@ -11,7 +11,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "advantages", indexes = {
-    @Index(name = "idx_advantage_company", columnList = "company_id")
+    @Index(name = "idx_advantage_company", columnList = "company_id"),
+    // Ordenações do catálogo (keyset): geral e dentro de uma empresa
+    @Index(name = "idx_advantage_cost", columnList = "cost_in_coins, id"),
+    @Index(name = "idx_advantage_created", columnList = "created_at, id"),
+    @Index(name = "idx_advantage_company_cost", columnList = "company_id, cost_in_coins, id"),
+    @Index(name = "idx_advantage_company_created", columnList = "company_id, created_at, id"),
+    @Index(name = "idx_advantage_popularity", columnList = "times_redeemed, id")
 })
 @Data
 @NoArgsConstructor
@@ -20,7 +26,9 @@ import java.util.List;
 public class Advantage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "advantage_id")
+    @TableGenerator(name = "advantage_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "advantages", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -33,12 +41,16 @@ public class Advantage {
     @Column(name = "cost_in_coins", nullable = false)
     private Integer costInCoins;
 
-    @Column(name = "available_quantity")
+    // Alterado só por UPDATEs atômicos (resgate, lotes da promoção relâmpago, reposição do
+    // admin em AdvantageRepository): salvar uma vantagem carregada antes não pode devolver
+    // ao estoque o que foi vendido nesse meio tempo
+    @Column(name = "available_quantity", updatable = false)
     private Integer availableQuantity; 
 
-    @Lob
-    @Column(name = "photo", columnDefinition = "LONGTEXT")
-    private String photo; // Armazena imagem em Base64
+    // Chave da imagem no ImageStore (SHA-256 + extensão); a URL pública é derivada dela.
+    // A antiga coluna photo (Base64) só é lida pelo AdvantagePhotoMigrationService
+    @Column(name = "photo_key", length = 80)
+    private String photoKey;
 
     @Column(name = "photo_name")
     private String photoName; // Nome original do arquivo
@@ -46,6 +58,23 @@ public class Advantage {
     @Column(name = "photo_type")
     private String photoType; // Tipo MIME (image/jpeg, image/png, etc.)
 
+    // Promoção relâmpago: o estoque é servido em lotes pelo FlashSaleInventoryService
+    @Column(name = "flash_sale", nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean flashSale;
+
+    // Contador mantido pelo resgate (UPDATE atômico em AdvantageRepository.claimCoupon)
+    // e conferido com os cupons pelo AdvantageRedemptionCounterService. Fora dos UPDATEs da
+    // entidade para que salvar uma vantagem carregada antes não sobrescreva o valor atual
+    @Column(name = "times_redeemed", nullable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int timesRedeemed;
+
+    // Unidades retiradas de available_quantity pelo FlashSaleInventoryService e ainda não
+    // resgatadas nem devolvidas; voltam ao estoque se a aplicação cair com elas em memória
+    @Column(name = "reserved_quantity", nullable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int reservedQuantity;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
@@ -96,10 +125,6 @@ public class Advantage {
         return studentsWhoRedeemed != null ? studentsWhoRedeemed : List.of();
     }
 
-    public int getTimesRedeemed() {
-        return studentsWhoRedeemed != null ? studentsWhoRedeemed.size() : 0;
-    }
-
     public List<Coupon> getCoupons() {
         return coupons != null ? coupons : List.of();
     }
@@ -0,0 +1,34 @@
+package com.labGCL03.moeda_estudantil.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Foto Base64 antiga que o AdvantagePhotoMigrationService não conseguiu mover para o
+ * ImageStore (conteúdo corrompido ou formato não suportado). Fica em tabela própria, fora
+ * da linha de advantages, até ser corrigida manualmente.
+ */
+@Entity
+@Table(name = "advantage_legacy_photos")
+@Data
+@NoArgsConstructor
+public class AdvantageLegacyPhoto {
+
+    @Id
+    @Column(name = "advantage_id")
+    private Long advantageId;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "photo", columnDefinition = "LONGTEXT", nullable = false)
+    private String photo;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
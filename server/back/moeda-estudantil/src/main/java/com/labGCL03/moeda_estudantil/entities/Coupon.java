@@ -11,7 +11,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "coupons", indexes = {
-    @Index(name = "idx_coupon_student", columnList = "student_id")
+    @Index(name = "idx_coupon_student", columnList = "student_id"),
+    @Index(name = "idx_coupon_uncounted", columnList = "redemption_counted, advantage_id")
 })
 @Data
 @NoArgsConstructor
@@ -20,7 +21,9 @@ import java.util.UUID;
 public class Coupon {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "coupon_id")
+    @TableGenerator(name = "coupon_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "coupons", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -33,6 +36,12 @@ public class Coupon {
     @Column(nullable = false)
     private Boolean used = false;
 
+    // false enquanto o resgate (promoção relâmpago) não entrou em advantages.times_redeemed;
+    // o FlashSaleInventoryService marca e soma no mesmo UPDATE, então nada é contado duas vezes
+    @Column(name = "redemption_counted", nullable = false, updatable = false,
+            columnDefinition = "BOOLEAN NOT NULL DEFAULT TRUE")
+    private boolean redemptionCounted = true;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "advantage_id", nullable = false)
     private Advantage advantage;
@@ -57,8 +66,8 @@ public class Coupon {
     }
 
     /**
-     * Gera um código único para o cupom no formato: XXXX-XXXX
-     * Baseado em UUID para garantir unicidade
+     * Formato antigo (XXXX-XXXX, 32 bits de um UUID), usado só quando o código não foi
+     * atribuído antes de salvar. Os resgates usam o CouponCodeAllocator.
      */
     public String generateCode() {
         String uuid = UUID.randomUUID().toString().replace("-", "").toUpperCase();
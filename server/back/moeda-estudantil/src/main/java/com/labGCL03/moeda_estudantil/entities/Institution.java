@@ -18,7 +18,9 @@ import java.util.List;
 public class Institution {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "institution_id")
+    @TableGenerator(name = "institution_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "institutions", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
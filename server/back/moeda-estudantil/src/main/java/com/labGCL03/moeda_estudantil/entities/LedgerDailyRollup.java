@@ -0,0 +1,58 @@
+package com.labGCL03.moeda_estudantil.entities;
+
+import com.labGCL03.moeda_estudantil.enums.RollupScope;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Total diário de transações por usuário (recebido/enviado) ou por instituição, separado
+ * por tipo. Mantido pelo LedgerRollupService na mesma transação que grava o razão; as
+ * consultas agregadas somam estas linhas em vez de varrer a tabela transactions.
+ */
+@Entity
+@Table(name = "ledger_daily_rollups", indexes = {
+    // A chave primária composta sai em ordem alfabética das colunas; este índice atende
+    // às leituras por escopo/ID em intervalo de dias
+    @Index(name = "idx_rollup_scope_day", columnList = "scope, scope_id, day, type")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDailyRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "amount_total", nullable = false)
+    private Long amountTotal;
+
+    @Column(name = "tx_count", nullable = false)
+    private Long txCount;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 16)
+        private RollupScope scope;
+
+        @Column(name = "scope_id", nullable = false)
+        private Long scopeId;
+
+        @Column(nullable = false)
+        private LocalDate day;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 16)
+        private TransactionType type;
+    }
+}
@@ -0,0 +1,27 @@
+package com.labGCL03.moeda_estudantil.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de que uma tarefa de manutenção única (ex.: montar os resumos do razão a partir
+ * do histórico) já foi concluída neste banco. A presença da linha é o que conta; o conteúdo
+ * da tabela em que a tarefa escreve não serve de indicador, porque o tráfego normal também
+ * escreve nela.
+ */
+@Entity
+@Table(name = "maintenance_markers")
+@Data
+@NoArgsConstructor
+public class MaintenanceMarker {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +13,7 @@ import java.util.List;
 @Entity
 @Table(name = "students")
 @PrimaryKeyJoinColumn(name = "user_id")
+@DynamicUpdate // Evita regravar coin_balance desatualizado ao salvar o perfil
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -5,12 +5,14 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
 @Entity
 @Table(name = "teachers")
 @PrimaryKeyJoinColumn(name = "user_id")
+@DynamicUpdate // Atualiza apenas colunas alteradas, preservando saldos modificados via UPDATE atômico
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -11,8 +11,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transactions", indexes = {
-    @Index(name = "idx_transaction_receiver", columnList = "receiver_id"),
-    @Index(name = "idx_transaction_sender", columnList = "sender_id")
+    // Compostos para paginação por keyset: cada página é uma varredura de intervalo no índice
+    @Index(name = "idx_transaction_receiver_date", columnList = "receiver_id, date, id"),
+    @Index(name = "idx_transaction_sender_date", columnList = "sender_id, date, id"),
+    @Index(name = "idx_transaction_institution_date", columnList = "institution_id, date, id"),
+    // Contagem por tipo nas frações de dia nas pontas de um intervalo (o miolo vem dos resumos)
+    @Index(name = "idx_transaction_type_date", columnList = "type, date")
 })
 @Data
 @NoArgsConstructor
@@ -21,7 +25,9 @@ import java.time.LocalDateTime;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id")
+    @TableGenerator(name = "transaction_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "transactions", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -46,6 +52,12 @@ public class Transaction {
     @JoinColumn(name = "receiver_id")
     private User receiver;
 
+    // Instituição do professor (envios e créditos semestrais) ou do aluno (resgates), gravada
+    // na criação para que relatórios por instituição não dependam de joins com teachers/students
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "institution_id")
+    private Institution institution;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
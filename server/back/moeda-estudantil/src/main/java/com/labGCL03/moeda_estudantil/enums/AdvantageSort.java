@@ -0,0 +1,31 @@
+package com.labGCL03.moeda_estudantil.enums;
+
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * Ordenações do catálogo de vantagens. O ID é sempre o critério de desempate, para que o
+ * cursor identifique uma posição única.
+ */
+public enum AdvantageSort {
+    COST_ASC,
+    COST_DESC,
+    NEWEST,
+    POPULARITY;
+
+    /**
+     * Converte o parâmetro da requisição (sem diferenciar maiúsculas); ausente = NEWEST.
+     */
+    public static AdvantageSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Ordenação inválida: " + value +
+                                        " (use cost_asc, cost_desc, newest ou popularity)");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.labGCL03.moeda_estudantil.enums;
+
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * Tamanhos em que uma imagem pode ser servida. As variantes têm largura fixa e são
+ * geradas em segundo plano a partir do original.
+ */
+public enum ImageSize {
+    THUMBNAIL(160),
+    MEDIUM(480),
+    ORIGINAL(0);
+
+    private final int width;
+
+    ImageSize(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public boolean isVariant() {
+        return width > 0;
+    }
+
+    public static ImageSize from(String value) {
+        if (value == null || value.isBlank()) {
+            return ORIGINAL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Tamanho de imagem inválido: " + value + " (use thumbnail, medium ou original)");
+        }
+    }
+}
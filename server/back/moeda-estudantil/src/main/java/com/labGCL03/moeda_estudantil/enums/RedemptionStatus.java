@@ -0,0 +1,12 @@
+package com.labGCL03.moeda_estudantil.enums;
+
+public enum RedemptionStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,13 @@
+package com.labGCL03.moeda_estudantil.enums;
+
+/**
+ * Dimensão de um total diário do razão: o que o usuário recebeu, o que o usuário
+ * enviou/gastou, ou tudo o que foi movimentado em uma instituição. Transações sem
+ * instituição ficam em INSTITUTION com scope_id 0, então a soma das linhas de instituição
+ * é o total do sistema.
+ */
+public enum RollupScope {
+    USER_IN,
+    USER_OUT,
+    INSTITUTION
+}
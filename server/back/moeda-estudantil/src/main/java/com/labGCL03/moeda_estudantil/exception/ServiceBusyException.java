@@ -0,0 +1,19 @@
+package com.labGCL03.moeda_estudantil.exception;
+
+/**
+ * Capacidade temporariamente esgotada (ex.: fila de resgates cheia); o cliente deve tentar
+ * de novo após retryAfterSeconds.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,35 @@
+package com.labGCL03.moeda_estudantil.repositories;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.enums.AdvantageSort;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consulta do catálogo com filtros combináveis e paginação por keyset. Implementada em
+ * AdvantageCatalogQueryImpl, que monta o JPQL só com os filtros informados, e exposta
+ * pelo AdvantageRepository.
+ */
+public interface AdvantageCatalogQuery {
+
+    /**
+     * Filtros opcionais (null = sem filtro). ids restringe o resultado às vantagens
+     * encontradas pela busca textual; text é usado apenas quando ids é null.
+     */
+    record CatalogFilter(Long companyId, Integer minCost, Integer maxCost, boolean availableOnly,
+                         Collection<Long> ids, String text) {
+    }
+
+    /**
+     * Posição do último item da página anterior: valor do campo de ordenação e ID.
+     */
+    record CatalogKeyset(Comparable<?> value, Long id) {
+    }
+
+    /**
+     * @param after posição a partir da qual ler, ou null para a primeira página
+     * @return até limit vantagens, com a empresa carregada, na ordem pedida
+     */
+    List<Advantage> findCatalogPage(CatalogFilter filter, AdvantageSort sort, CatalogKeyset after, int limit);
+}
@@ -0,0 +1,71 @@
+package com.labGCL03.moeda_estudantil.repositories;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.enums.AdvantageSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class AdvantageCatalogQueryImpl implements AdvantageCatalogQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Advantage> findCatalogPage(CatalogFilter filter, AdvantageSort sort, CatalogKeyset after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT a FROM Advantage a JOIN FETCH a.company c WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.companyId() != null) {
+            jpql.append(" AND c.id = :companyId");
+            params.put("companyId", filter.companyId());
+        }
+        if (filter.minCost() != null) {
+            jpql.append(" AND a.costInCoins >= :minCost");
+            params.put("minCost", filter.minCost());
+        }
+        if (filter.maxCost() != null) {
+            jpql.append(" AND a.costInCoins <= :maxCost");
+            params.put("maxCost", filter.maxCost());
+        }
+        if (filter.availableOnly()) {
+            jpql.append(" AND (a.availableQuantity IS NULL OR a.availableQuantity > 0)");
+        }
+        if (filter.ids() != null) {
+            jpql.append(" AND a.id IN :ids");
+            params.put("ids", filter.ids());
+        } else if (filter.text() != null) {
+            jpql.append(" AND (a.name LIKE :text OR a.description LIKE :text)");
+            params.put("text", "%" + filter.text() + "%");
+        }
+
+        String column = sortColumn(sort);
+        String direction = sort == AdvantageSort.COST_ASC ? "ASC" : "DESC";
+        if (after != null) {
+            // (coluna, id) depois da posição do cursor, na direção da ordenação
+            String op = sort == AdvantageSort.COST_ASC ? ">" : "<";
+            jpql.append(" AND (").append(column).append(' ').append(op).append(" :afterValue")
+                .append(" OR (").append(column).append(" = :afterValue AND a.id ").append(op).append(" :afterId))");
+            params.put("afterValue", after.value());
+            params.put("afterId", after.id());
+        }
+        jpql.append(" ORDER BY ").append(column).append(' ').append(direction)
+            .append(", a.id ").append(direction);
+
+        TypedQuery<Advantage> query = entityManager.createQuery(jpql.toString(), Advantage.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static String sortColumn(AdvantageSort sort) {
+        return switch (sort) {
+            case COST_ASC, COST_DESC -> "a.costInCoins";
+            case NEWEST -> "a.createdAt";
+            case POPULARITY -> "a.timesRedeemed";
+        };
+    }
+}
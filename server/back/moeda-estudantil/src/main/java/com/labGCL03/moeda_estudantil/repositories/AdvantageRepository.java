@@ -2,6 +2,7 @@ package com.labGCL03.moeda_estudantil.repositories;
 
 import com.labGCL03.moeda_estudantil.entities.Advantage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AdvantageRepository extends JpaRepository<Advantage, Long> {
+public interface AdvantageRepository extends JpaRepository<Advantage, Long>, AdvantageCatalogQuery {
     
     List<Advantage> findByCompanyId(Long companyId);
     
@@ -20,6 +21,13 @@ public interface AdvantageRepository extends JpaRepository<Advantage, Long> {
     @Query("SELECT a FROM Advantage a WHERE a.name LIKE %:name%")
     List<Advantage> searchAdvantagesByName(@Param("name") String name);
     
+    // Campos do índice de busca em memória (id, nome, descrição, empresa)
+    @Query("SELECT a.id, a.name, a.description, c.name FROM Advantage a JOIN a.company c")
+    List<Object[]> findSearchRows();
+    
+    @Query("SELECT a.id, a.name, a.description, c.name FROM Advantage a JOIN a.company c WHERE c.id = :companyId")
+    List<Object[]> findSearchRowsByCompanyId(@Param("companyId") Long companyId);
+    
     @Query("SELECT a FROM Advantage a WHERE a.company.id = :companyId " +
            "AND a.costInCoins BETWEEN :minCost AND :maxCost")
     List<Advantage> findAdvantagesByCompanyAndCostRange(@Param("companyId") Long companyId,
@@ -32,6 +40,51 @@ public interface AdvantageRepository extends JpaRepository<Advantage, Long> {
     @Query("SELECT AVG(a.costInCoins) FROM Advantage a")
     Double getAverageCostOfAdvantages();
     
+    // Leituras do cache do catálogo: empresa no mesmo SELECT
+    @Query("SELECT a FROM Advantage a JOIN FETCH a.company")
+    List<Advantage> findAllWithCompany();
+    
+    @Query("SELECT a FROM Advantage a JOIN FETCH a.company c WHERE c.id = :companyId")
+    List<Advantage> findByCompanyIdWithCompany(@Param("companyId") Long companyId);
+    
+    /**
+     * Reserva um cupom da vantagem: decrementa o estoque e incrementa times_redeemed em um
+     * único UPDATE condicional. Retorna 0 quando a vantagem não existe ou está esgotada, sem
+     * risco de vender além do estoque sob concorrência. Estoque ilimitado (NULL) continua NULL.
+     */
+    @Modifying
+    @Query("UPDATE Advantage a SET a.availableQuantity = a.availableQuantity - 1, " +
+           "a.timesRedeemed = a.timesRedeemed + 1 " +
+           "WHERE a.id = :id AND (a.availableQuantity IS NULL OR a.availableQuantity > 0)")
+    int claimCoupon(@Param("id") Long id);
+    
+    /**
+     * Repõe estoque somando à quantidade atual; estoque ilimitado (NULL) passa a valer só o
+     * que foi adicionado.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Advantage a SET a.availableQuantity = COALESCE(a.availableQuantity, 0) + :amount " +
+           "WHERE a.id = :id")
+    int addStock(@Param("id") Long id, @Param("amount") int amount);
+    
+    /**
+     * Define o estoque total à venda. As unidades já reservadas pela promoção relâmpago
+     * contam como parte dele, então available_quantity recebe só o restante.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Advantage a SET a.availableQuantity = " +
+           "CASE WHEN :quantity > a.reservedQuantity THEN :quantity - a.reservedQuantity ELSE 0 END " +
+           "WHERE a.id = :id")
+    int setStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    /**
+     * Se a vantagem está disponível para resgate (estoque ilimitado ou positivo); vazio se
+     * ela não existe mais.
+     */
+    @Query("SELECT CASE WHEN a.availableQuantity IS NULL OR a.availableQuantity > 0 THEN true ELSE false END " +
+           "FROM Advantage a WHERE a.id = :id")
+    Optional<Boolean> findAvailability(@Param("id") Long id);
+    
     @Query("SELECT a FROM Advantage a LEFT JOIN FETCH a.company WHERE a.id = :id")
     Optional<Advantage> findByIdWithCompany(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.labGCL03.moeda_estudantil.repositories;
+
+import com.labGCL03.moeda_estudantil.entities.LedgerDailyRollup;
+import com.labGCL03.moeda_estudantil.enums.RollupScope;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface LedgerDailyRollupRepository extends JpaRepository<LedgerDailyRollup, LedgerDailyRollup.Key> {
+    
+    @Query("SELECT COALESCE(SUM(r.amountTotal), 0) FROM LedgerDailyRollup r " +
+           "WHERE r.id.scope = :scope AND r.id.scopeId = :scopeId AND r.id.type = :type")
+    Long sumAmountByType(@Param("scope") RollupScope scope, @Param("scopeId") Long scopeId,
+                         @Param("type") TransactionType type);
+    
+    @Query("SELECT COALESCE(SUM(r.txCount), 0) FROM LedgerDailyRollup r " +
+           "WHERE r.id.scope = :scope AND r.id.type = :type AND r.id.day BETWEEN :startDay AND :endDay")
+    Long sumCountByTypeAndDayRange(@Param("scope") RollupScope scope,
+                                   @Param("type") TransactionType type,
+                                   @Param("startDay") LocalDate startDay,
+                                   @Param("endDay") LocalDate endDay);
+}
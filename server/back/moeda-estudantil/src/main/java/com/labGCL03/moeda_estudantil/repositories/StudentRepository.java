@@ -2,6 +2,7 @@ package com.labGCL03.moeda_estudantil.repositories;
 
 import com.labGCL03.moeda_estudantil.entities.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -37,4 +38,22 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     @Query("SELECT s FROM Student s LEFT JOIN FETCH s.institution WHERE s.id = :id")
     Optional<Student> findByIdWithInstitution(@Param("id") Long id);
-}
\ No newline at end of file
+    
+    /**
+     * Credita moedas no saldo do aluno com incremento direto no banco.
+     * Retorna 0 quando o aluno não existe.
+     */
+    @Modifying
+    @Query(value = "UPDATE students SET coin_balance = coin_balance + :amount WHERE user_id = :studentId",
+           nativeQuery = true)
+    int creditBalance(@Param("studentId") Long studentId, @Param("amount") Integer amount);
+    
+    /**
+     * Debita o saldo do aluno apenas se houver saldo suficiente, no mesmo comando.
+     * Retorna 0 quando o aluno não existe ou não possui saldo.
+     */
+    @Modifying
+    @Query(value = "UPDATE students SET coin_balance = coin_balance - :amount " +
+                   "WHERE user_id = :studentId AND coin_balance >= :amount", nativeQuery = true)
+    int debitBalance(@Param("studentId") Long studentId, @Param("amount") Integer amount);
+}
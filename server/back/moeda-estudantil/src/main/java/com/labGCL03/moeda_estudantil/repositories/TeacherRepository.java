@@ -2,6 +2,7 @@ package com.labGCL03.moeda_estudantil.repositories;
 
 import com.labGCL03.moeda_estudantil.entities.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -33,4 +34,19 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     
     @Query("SELECT AVG(t.currentBalance) FROM Teacher t WHERE t.institution.id = :institutionId")
     Double getAverageCoinsInInstitution(@Param("institutionId") Long institutionId);
+    
+    /**
+     * Debita o saldo do professor apenas se houver saldo suficiente.
+     * A condição no WHERE torna a operação atômica: retorna 0 quando o professor
+     * não existe ou não possui saldo, sem risco de saldo negativo sob concorrência.
+     */
+    @Modifying
+    @Query(value = "UPDATE teachers SET current_balance = current_balance - :amount " +
+                   "WHERE user_id = :teacherId AND current_balance >= :amount", nativeQuery = true)
+    int debitBalance(@Param("teacherId") Long teacherId, @Param("amount") Integer amount);
+    
+    @Modifying
+    @Query(value = "UPDATE teachers SET current_balance = current_balance + :amount WHERE user_id = :teacherId",
+           nativeQuery = true)
+    int creditBalance(@Param("teacherId") Long teacherId, @Param("amount") Integer amount);
 }
\ No newline at end of file
@@ -1,14 +1,22 @@
 package com.labGCL03.moeda_estudantil.repositories;
 
+import com.labGCL03.moeda_estudantil.dto.TransactionResponseDTO;
 import com.labGCL03.moeda_estudantil.entities.Transaction;
 import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -19,28 +27,83 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     
     List<Transaction> findByTypeOrderByDateDesc(TransactionType type);
     
-    @Query("SELECT t FROM Transaction t WHERE t.receiver.id = :userId OR t.sender.id = :userId ORDER BY t.date DESC")
-    List<Transaction> findAllTransactionsByUserId(@Param("userId") Long userId);
+    /*
+     * Consultas de histórico com projeção direta em TransactionResponseDTO: id e nome do
+     * remetente/destinatário vêm na mesma consulta, sem inicializar os proxies lazy de User
+     * (que na herança JOINED custariam até duas consultas extras por linha).
+     *
+     * Cada consulta cobre um lado da transação e é uma varredura ordenada em
+     * (receiver_id, date, id) ou (sender_id, date, id); um OR entre as colunas impediria o
+     * uso dos índices e terminaria em filesort. O histórico do usuário é a intercalação das duas.
+     */
+    
+    String HISTORY_PROJECTION = "SELECT new com.labGCL03.moeda_estudantil.dto.TransactionResponseDTO(" +
+            "t.id, t.amount, t.date, t.type, t.reason, s.id, s.name, r.id, r.name, t.createdAt) " +
+            "FROM Transaction t LEFT JOIN t.sender s LEFT JOIN t.receiver r ";
+    
+    @Query(HISTORY_PROJECTION +
+           "WHERE t.receiver.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<TransactionResponseDTO> findReceivedHistory(@Param("userId") Long userId,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+    
+    @Query(HISTORY_PROJECTION +
+           "WHERE t.sender.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<TransactionResponseDTO> findSentHistory(@Param("userId") Long userId,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT t FROM Transaction t WHERE (t.receiver.id = :userId OR t.sender.id = :userId) " +
-           "AND t.date BETWEEN :startDate AND :endDate ORDER BY t.date DESC")
-    List<Transaction> findTransactionsByUserIdAndDateRange(@Param("userId") Long userId,
-                                                           @Param("startDate") LocalDateTime startDate,
-                                                           @Param("endDate") LocalDateTime endDate);
+    // Páginas por keyset: começam estritamente depois da posição (cursorDate, cursorId)
     
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.receiver.id = :userId AND t.type = 'RECEIVED'")
-    Long getTotalReceivedByUser(@Param("userId") Long userId);
+    @Query(HISTORY_PROJECTION +
+           "WHERE t.receiver.id = :userId AND t.date >= :startDate " +
+           "AND (t.date < :cursorDate OR (t.date = :cursorDate AND t.id < :cursorId)) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<TransactionResponseDTO> findReceivedPage(@Param("userId") Long userId,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("cursorDate") LocalDateTime cursorDate,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Limit limit);
     
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.sender.id = :userId AND t.type = 'SENT'")
-    Long getTotalSentByUser(@Param("userId") Long userId);
+    @Query(HISTORY_PROJECTION +
+           "WHERE t.sender.id = :userId AND t.date >= :startDate " +
+           "AND (t.date < :cursorDate OR (t.date = :cursorDate AND t.id < :cursorId)) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<TransactionResponseDTO> findSentPage(@Param("userId") Long userId,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("cursorDate") LocalDateTime cursorDate,
+                                              @Param("cursorId") Long cursorId,
+                                              Limit limit);
     
-    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.type = :type AND t.date BETWEEN :startDate AND :endDate")
-    Long countTransactionsByTypeAndDateRange(@Param("type") TransactionType type,
-                                             @Param("startDate") LocalDateTime startDate,
-                                             @Param("endDate") LocalDateTime endDate);
+    // Contagens de trechos curtos (frações de dia); intervalos longos somam ledger_daily_rollups
     
-    @Query("SELECT t FROM Transaction t WHERE t.sender.id IN " +
-           "(SELECT te.id FROM Teacher te WHERE te.institution.id = :institutionId) " +
-           "ORDER BY t.date DESC")
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.type = :type AND t.date >= :from AND t.date < :until")
+    long countByTypeFromUntil(@Param("type") TransactionType type,
+                              @Param("from") LocalDateTime from,
+                              @Param("until") LocalDateTime until);
+    
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.type = :type AND t.date BETWEEN :from AND :to")
+    long countByTypeBetween(@Param("type") TransactionType type,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.institution.id = :institutionId ORDER BY t.date DESC, t.id DESC")
     List<Transaction> findTransactionsByInstitution(@Param("institutionId") Long institutionId);
-}
\ No newline at end of file
+    
+    /*
+     * Leitura forward-only para exportação: com fetch size Integer.MIN_VALUE o Connector/J
+     * entrega as linhas uma a uma em vez de materializar o resultado inteiro no cliente.
+     * O Stream precisa ser consumido dentro de uma transação e fechado ao final; enquanto
+     * estiver aberto, a conexão não aceita outras consultas.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(HISTORY_PROJECTION +
+           "WHERE t.institution.id = :institutionId " +
+           "ORDER BY t.date DESC, t.id DESC")
+    Stream<TransactionResponseDTO> streamByInstitution(@Param("institutionId") Long institutionId);
+}
@@ -1,5 +1,6 @@
 package com.labGCL03.moeda_estudantil.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,14 +35,18 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                 .authorizeHttpRequests(auth -> auth
+                        // Exportações em streaming e long polling continuam em um dispatch ASYNC; a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Endpoints públicos - Login e cadastro
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/students").permitAll() // Alunos podem se cadastrar
                         .requestMatchers(HttpMethod.POST, "/api/companies").permitAll() // Empresas podem se cadastrar
+                        .requestMatchers(HttpMethod.GET, "/api/institutions/*/transactions/**").hasAnyRole("TEACHER", "ADMIN") // Extrato da instituição
                         .requestMatchers(HttpMethod.GET, "/api/institutions/**").permitAll() // Instituições públicas para tela de registro
                         
                         // Upload de arquivos e servir imagens
                         .requestMatchers("/uploads/**").permitAll() // Servir imagens públicas
+                        .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll() // Imagens por tamanho (usadas direto em <img>)
                         .requestMatchers(HttpMethod.POST, "/api/upload/**").hasAnyRole("COMPANY", "ADMIN") // Upload apenas para empresas
                         .requestMatchers(HttpMethod.DELETE, "/api/upload/**").hasAnyRole("COMPANY", "ADMIN")
                         
@@ -56,7 +61,8 @@ public class SecurityConfig {
                         ).permitAll()
                         
                         // Alunos - STUDENT tem acesso completo aos endpoints de aluno
-                        .requestMatchers(HttpMethod.POST, "/api/students/purchase").hasAnyRole("STUDENT", "ADMIN") // Aluno pode resgatar vantagens
+                        .requestMatchers(HttpMethod.POST, "/api/students/purchase", "/api/students/purchase/async").hasAnyRole("STUDENT", "ADMIN") // Aluno pode resgatar vantagens
+                        .requestMatchers(HttpMethod.GET, "/api/students/purchase/queue").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/students/**").hasAnyRole("STUDENT", "TEACHER", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/students/**").hasAnyRole("STUDENT", "ADMIN")
                         .requestMatchers(HttpMethod.PATCH, "/api/students/**").hasAnyRole("STUDENT", "ADMIN")
@@ -64,6 +70,7 @@ public class SecurityConfig {
                         
                         // Professores - Regras específicas ANTES das genéricas
                         .requestMatchers(HttpMethod.POST, "/api/teachers/*/transfer").hasAnyRole("TEACHER", "ADMIN") // Professor pode transferir
+                        .requestMatchers(HttpMethod.POST, "/api/teachers/*/transfer/bulk").hasAnyRole("TEACHER", "ADMIN") // Transferência em lote
                         .requestMatchers(HttpMethod.GET, "/api/teachers/**").hasAnyRole("TEACHER", "STUDENT", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/teachers/**").hasRole("ADMIN") // Outras operações POST apenas ADMIN
                         .requestMatchers(HttpMethod.PUT, "/api/teachers/**").hasAnyRole("TEACHER", "ADMIN")
@@ -76,6 +83,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/companies/**").hasAnyRole("COMPANY", "ADMIN") // COMPANY pode deletar próprio perfil
                         
                         // Vantagens - STUDENT pode apenas consultar (GET), COMPANY e ADMIN podem gerenciar
+                        .requestMatchers(HttpMethod.GET, "/api/advantages/cache/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/advantages/**").hasAnyRole("STUDENT", "COMPANY", "TEACHER", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/advantages").hasAnyRole("COMPANY", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/advantages/**").hasAnyRole("COMPANY", "ADMIN")
@@ -83,6 +91,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/advantages/**").hasAnyRole("COMPANY", "ADMIN")
                         
                         // Cupons - STUDENT pode ver seus cupons, COMPANY pode validar e marcar como usado
+                        .requestMatchers(HttpMethod.GET, "/api/coupons/filter/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/coupons/validate/**").hasAnyRole("COMPANY", "ADMIN") // Empresa valida cupom
                         .requestMatchers(HttpMethod.PATCH, "/api/coupons/use/**").hasAnyRole("COMPANY", "ADMIN") // Empresa marca como usado
                         .requestMatchers(HttpMethod.GET, "/api/coupons/student/**").hasAnyRole("STUDENT", "ADMIN") // Aluno vê seus cupons
@@ -91,6 +100,7 @@ public class SecurityConfig {
                         // Transações - Professores enviam, alunos resgatam
                         .requestMatchers(HttpMethod.POST, "/api/transactions/send").hasRole("TEACHER")
                         .requestMatchers(HttpMethod.POST, "/api/transactions/redeem").hasRole("STUDENT")
+                        .requestMatchers(HttpMethod.POST, "/api/transactions/rollups/rebuild").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/transactions/**").authenticated()
                         
                         // Qualquer outra requisição precisa estar autenticada
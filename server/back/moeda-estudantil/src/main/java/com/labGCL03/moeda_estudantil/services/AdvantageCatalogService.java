@@ -0,0 +1,375 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labGCL03.moeda_estudantil.dto.AdvantageResponseDTO;
+import com.labGCL03.moeda_estudantil.dto.AdvantageSnapshot;
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.enums.AdvantageSort;
+import com.labGCL03.moeda_estudantil.enums.ImageSize;
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+import com.labGCL03.moeda_estudantil.exception.ResourceNotFoundException;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageCatalogQuery.CatalogFilter;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageCatalogQuery.CatalogKeyset;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import com.labGCL03.moeda_estudantil.util.BoundedTtlCache;
+import com.labGCL03.moeda_estudantil.util.CursorCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Leituras do catálogo de vantagens (listagem geral, por ID e por empresa) servidas de um
+ * cache em memória com limite de entradas e TTL.
+ *
+ * O cache guarda AdvantageSnapshot imutáveis, nunca entidades. As entradas afetadas são
+ * removidas quando um AdvantageChangedEvent é publicado, depois do commit; o TTL só cobre
+ * alterações feitas fora da aplicação.
+ *
+ * Resgates (AdvantageStockChangedEvent) descartam só o que mostra quantidade ou contagem de
+ * resgates: a vantagem por ID e a listagem da empresa dona dela. A listagem geral e a visão
+ * do aluno por empresa só mostram vantagens disponíveis, então são descartadas apenas quando
+ * a vantagem esgota ou volta a ter estoque; sob tráfego de resgates elas continuam em cache.
+ * Cada chave tem sua própria versão no BoundedTtlCache, então descartar uma não perde a
+ * carga em andamento das outras.
+ *
+ * As listagens mais acessadas também ficam prontas como JSON (e gzip) em bytes, com um ETag
+ * forte calculado sobre o conteúdo, para que o controller as escreva sem montar DTOs nem
+ * passar pelo Jackson. As URLs de imagem usam a origem configurada em app.public-base-url,
+ * nunca o Host da requisição, então a chave não depende de quem pede.
+ *
+ * Os snapshots já trazem a chave da variante de cada tamanho, para que as respostas apontem
+ * direto para o arquivo imutável em /uploads; quando uma variante fica pronta depois do
+ * snapshot (ImageVariantsReadyEvent), as entradas com aquela imagem são descartadas.
+ */
+@Service
+@Slf4j
+public class AdvantageCatalogService {
+
+    private enum Scope { ALL, ID, COMPANY }
+
+    private record CatalogKey(Scope scope, Long id) {
+    }
+
+    /** Visão renderizada: listagem geral do aluno ou listagem da empresa com/sem quantidade. */
+    private record RenderKey(Scope scope, Long companyId, boolean showQuantity) {
+    }
+
+    /**
+     * Corpo JSON pronto; gzip é null quando o corpo é pequeno demais para compensar.
+     */
+    public record RenderedCatalog(byte[] json, byte[] gzip, String etag) {
+
+        /**
+         * ETag do corpo gzip: mesmo conteúdo, outra codificação, logo outro validador forte.
+         */
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Teto de correspondências da busca textual usadas como filtro da página. Com mais
+     * correspondências que isso, o filtro fica com as MAX_TEXT_MATCHES mais relevantes, a
+     * ordenação pedida vale só dentro delas e a página sai com truncated = true.
+     */
+    public static final int MAX_TEXT_MATCHES = 1000;
+
+    private static final CatalogKey ALL = new CatalogKey(Scope.ALL, null);
+
+    private final AdvantageRepository advantageRepository;
+    private final CompanyRepository companyRepository;
+    private final ObjectMapper objectMapper;
+    private final AdvantageSearchService advantageSearchService;
+    private final ImageVariantService imageVariantService;
+    private final BoundedTtlCache<CatalogKey, List<AdvantageSnapshot>> cache;
+    private final BoundedTtlCache<RenderKey, RenderedCatalog> rendered;
+    // Disponibilidade lida no último AdvantageStockChangedEvent de cada vantagem. O lock
+    // ordena leitura e comparação entre resgates concorrentes da mesma vantagem
+    private final Map<Long, Boolean> knownAvailability = new ConcurrentHashMap<>();
+    private final Object stockLock = new Object();
+
+    public AdvantageCatalogService(AdvantageRepository advantageRepository,
+                                   CompanyRepository companyRepository,
+                                   ObjectMapper objectMapper,
+                                   AdvantageSearchService advantageSearchService,
+                                   ImageVariantService imageVariantService,
+                                   @Value("${app.catalog-cache.max-entries:1000}") int maxEntries,
+                                   @Value("${app.catalog-cache.ttl:10m}") Duration ttl) {
+        this.advantageRepository = advantageRepository;
+        this.companyRepository = companyRepository;
+        this.objectMapper = objectMapper;
+        this.advantageSearchService = advantageSearchService;
+        this.imageVariantService = imageVariantService;
+        this.cache = new BoundedTtlCache<>(maxEntries, ttl);
+        this.rendered = new BoundedTtlCache<>(maxEntries, ttl);
+    }
+
+    public List<AdvantageSnapshot> findAll() {
+        return cache.getOrLoad(ALL, key -> advantageRepository.findAllWithCompany().stream()
+                .map(this::snapshot)
+                .toList());
+    }
+
+    public AdvantageSnapshot findById(Long id) {
+        return cache.getOrLoad(new CatalogKey(Scope.ID, id), key -> advantageRepository.findByIdWithCompany(id)
+                .map(advantage -> List.of(snapshot(advantage)))
+                .orElseThrow(() -> new ResourceNotFoundException("Vantagem", id)))
+                .get(0);
+    }
+
+    public List<AdvantageSnapshot> findByCompanyId(Long companyId) {
+        return cache.getOrLoad(new CatalogKey(Scope.COMPANY, companyId), key -> {
+            // Verifica se a empresa existe
+            companyRepository.findById(companyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Empresa", companyId));
+
+            return advantageRepository.findByCompanyIdWithCompany(companyId).stream()
+                    .map(this::snapshot)
+                    .toList();
+        });
+    }
+
+    /**
+     * Snapshot com as variantes de imagem já geradas; a empresa deve estar carregada.
+     */
+    public AdvantageSnapshot snapshot(Advantage advantage) {
+        String key = advantage.getPhotoKey();
+        return AdvantageSnapshot.of(advantage,
+                imageVariantService.publishedKey(key, ImageSize.MEDIUM),
+                imageVariantService.publishedKey(key, ImageSize.THUMBNAIL));
+    }
+
+    /**
+     * Listagem geral na visão do aluno (apenas disponíveis, sem quantidade).
+     */
+    public RenderedCatalog renderAll() {
+        return rendered.getOrLoad(new RenderKey(Scope.ALL, null, false), key -> render(
+                findAll().stream()
+                        .filter(AdvantageSnapshot::isAvailable)
+                        .map(advantage -> new AdvantageResponseDTO(advantage, false, false))
+                        .toList()));
+    }
+
+    /**
+     * Listagem de uma empresa; com showQuantity (visão da empresa) inclui as esgotadas.
+     */
+    public RenderedCatalog renderByCompanyId(Long companyId, boolean showQuantity) {
+        return rendered.getOrLoad(new RenderKey(Scope.COMPANY, companyId, showQuantity), key -> render(
+                findByCompanyId(companyId).stream()
+                        .filter(advantage -> showQuantity || advantage.isAvailable())
+                        .map(advantage -> new AdvantageResponseDTO(advantage, true, showQuantity))
+                        .toList()));
+    }
+
+    /**
+     * Catálogo paginado por cursor (keyset no campo de ordenação + ID), com filtros
+     * combináveis. Não passa pelo cache: cada página é uma varredura curta de índice.
+     * Com texto, veja MAX_TEXT_MATCHES.
+     */
+    public CursorPageDTO<AdvantageResponseDTO> findPage(Long companyId, Integer minCost, Integer maxCost,
+                                                        boolean availableOnly, String text, String sortParam,
+                                                        String cursor, Integer limit) {
+        if ((minCost != null && minCost < 0) || (maxCost != null && maxCost < 0)) {
+            throw new BusinessException("Valores de custo devem ser não-negativos");
+        }
+        if (minCost != null && maxCost != null && minCost > maxCost) {
+            throw new BusinessException("Custo mínimo não pode ser maior que o custo máximo");
+        }
+        AdvantageSort sort = AdvantageSort.from(sortParam);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        String query = text == null || text.isBlank() ? null : text.trim();
+        // Pede uma a mais para saber se o teto cortou correspondências
+        List<Long> ids = query == null ? null : advantageSearchService.matchingIds(query, MAX_TEXT_MATCHES + 1);
+        if (ids != null && ids.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null);
+        }
+        boolean truncated = ids != null && ids.size() > MAX_TEXT_MATCHES;
+        if (truncated) {
+            ids = ids.subList(0, MAX_TEXT_MATCHES);
+        }
+
+        CatalogFilter filter = new CatalogFilter(companyId, minCost, maxCost, availableOnly, ids, query);
+        List<Advantage> rows = advantageRepository.findCatalogPage(filter, sort, decodeCursor(sort, cursor), pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Advantage> page = hasMore ? rows.subList(0, pageSize) : rows;
+        List<AdvantageResponseDTO> items = page.stream()
+                .map(this::snapshot)
+                .map(snapshot -> new AdvantageResponseDTO(snapshot, sort == AdvantageSort.POPULARITY, false))
+                .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            Advantage last = page.get(page.size() - 1);
+            Object value = switch (sort) {
+                case COST_ASC, COST_DESC -> last.getCostInCoins();
+                case NEWEST -> last.getCreatedAt();
+                case POPULARITY -> last.getTimesRedeemed();
+            };
+            nextCursor = CursorCodec.encode(sort.name(), value.toString(), last.getId().toString());
+        }
+        return new CursorPageDTO<>(items, nextCursor, truncated);
+    }
+
+    public Map<String, BoundedTtlCache.Stats> stats() {
+        Map<String, BoundedTtlCache.Stats> stats = new LinkedHashMap<>();
+        stats.put("snapshots", cache.stats());
+        stats.put("rendered", rendered.stats());
+        return stats;
+    }
+
+    /**
+     * Descarta todo o cache (ex.: correções feitas direto no banco).
+     */
+    public void invalidateAll() {
+        knownAvailability.clear();
+        cache.clear();
+        rendered.clear();
+    }
+
+    /**
+     * Sem transação ativa (fallbackExecution) o evento é tratado na hora.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvantageChanged(AdvantageChangedEvent event) {
+        cache.invalidate(ALL);
+        cache.invalidate(new CatalogKey(Scope.COMPANY, event.companyId()));
+        rendered.invalidateKeys(key -> key.scope() == Scope.ALL || event.companyId().equals(key.companyId()));
+        if (event.advantageId() != null) {
+            knownAvailability.remove(event.advantageId());
+            cache.invalidate(new CatalogKey(Scope.ID, event.advantageId()));
+        } else {
+            // Mudança na empresa: remove todas as vantagens dela guardadas por ID
+            cache.invalidateIf((key, snapshots) -> key.scope() == Scope.ID
+                    && event.companyId().equals(snapshots.get(0).companyId()));
+        }
+        log.debug("Cache do catálogo invalidado: vantagem {}, empresa {}", event.advantageId(), event.companyId());
+    }
+
+    /**
+     * Quantidade ou contagem de resgates mudou. A disponibilidade é relida no banco (uma
+     * consulta por chave primária) e comparada com a do último resgate da mesma vantagem ou,
+     * no primeiro resgate, com a da listagem em cache; só uma mudança descarta as visões que
+     * filtram por ela.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvantageStockChanged(AdvantageStockChangedEvent event) {
+        Boolean listed = listedAvailability(event.advantageId(), event.companyId());
+        cache.invalidate(new CatalogKey(Scope.ID, event.advantageId()));
+        cache.invalidate(new CatalogKey(Scope.COMPANY, event.companyId()));
+        rendered.invalidate(new RenderKey(Scope.COMPANY, event.companyId(), true));
+
+        synchronized (stockLock) {
+            Boolean available = advantageRepository.findAvailability(event.advantageId()).orElse(null);
+            Boolean previous = available != null
+                    ? knownAvailability.put(event.advantageId(), available)
+                    : knownAvailability.remove(event.advantageId());
+            if (previous == null) {
+                previous = listed;
+            }
+            if (available != null && available.equals(previous)) {
+                return;
+            }
+            cache.invalidate(ALL);
+            rendered.invalidate(new RenderKey(Scope.ALL, null, false));
+            rendered.invalidate(new RenderKey(Scope.COMPANY, event.companyId(), false));
+        }
+        log.debug("Disponibilidade da vantagem {} mudou; listagens descartadas", event.advantageId());
+    }
+
+    /**
+     * Disponibilidade da vantagem na listagem geral ou da empresa guardada, ou null se nenhuma
+     * das duas está em cache.
+     */
+    private Boolean listedAvailability(Long advantageId, Long companyId) {
+        List<AdvantageSnapshot> listed = cache.peek(ALL);
+        if (listed == null) {
+            listed = cache.peek(new CatalogKey(Scope.COMPANY, companyId));
+        }
+        if (listed == null) {
+            return null;
+        }
+        return listed.stream()
+                .filter(snapshot -> advantageId.equals(snapshot.id()))
+                .findFirst()
+                .map(AdvantageSnapshot::isAvailable)
+                .orElse(null);
+    }
+
+    @EventListener
+    public void onImageVariantsReady(ImageVariantsReadyEvent event) {
+        cache.invalidateIf((key, snapshots) -> snapshots.stream()
+                .anyMatch(snapshot -> event.key().equals(snapshot.photoKey())));
+        // O corpo renderizado não guarda as chaves; variantes novas são raras (só após upload)
+        rendered.clear();
+    }
+
+    private RenderedCatalog render(List<AdvantageResponseDTO> response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            byte[] gzip = null;
+            if (json.length >= GZIP_MIN_BYTES) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+                    compressed.write(json);
+                }
+                gzip = out.toByteArray();
+            }
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            return new RenderedCatalog(json, gzip, etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o catálogo de vantagens", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static CatalogKeyset decodeCursor(AdvantageSort sort, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = CursorCodec.decode(cursor, 3);
+        if (!parts[0].equals(sort.name())) {
+            throw new BusinessException("Cursor de paginação não corresponde à ordenação pedida");
+        }
+        try {
+            Comparable<?> value = switch (sort) {
+                case COST_ASC, COST_DESC -> Integer.valueOf(parts[1]);
+                case NEWEST -> LocalDateTime.parse(parts[1]);
+                case POPULARITY -> Integer.valueOf(parts[1]);
+            };
+            return new CatalogKeyset(value, Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+}
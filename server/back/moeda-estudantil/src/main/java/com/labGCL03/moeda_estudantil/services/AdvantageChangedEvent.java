@@ -0,0 +1,9 @@
+package com.labGCL03.moeda_estudantil.services;
+
+/**
+ * Publicado quando uma vantagem (ou a empresa dona dela) muda de forma visível no catálogo:
+ * criação, edição, exclusão ou reativação. Resgates publicam AdvantageStockChangedEvent.
+ * advantageId é null quando a mudança atinge todas as vantagens da empresa.
+ */
+public record AdvantageChangedEvent(Long advantageId, Long companyId) {
+}
@@ -0,0 +1,144 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+import com.labGCL03.moeda_estudantil.util.DataUrls;
+import com.labGCL03.moeda_estudantil.util.ImageFormats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Move as fotos antigas das vantagens (data URL Base64 na coluna advantages.photo) para o
+ * ImageStore, gravando a chave em photo_key e limpando a coluna.
+ *
+ * Trabalha com JDBC direto porque a entidade não mapeia mais a coluna legada, e lê uma
+ * linha por vez: cada foto pode ter vários MB e carregar o lote inteiro pesaria no heap.
+ * Linhas que já têm photo_key são ignoradas, então o job pode ser interrompido e retomado.
+ *
+ * Fotos que não puderem ser decodificadas (Base64 inválido, formato não suportado) vão
+ * para advantage_legacy_photos; erros de gravação no ImageStore interrompem a migração sem
+ * tocar na linha. Com a coluna legada vazia as linhas de advantages já não carregam nenhum
+ * payload; remover a coluna (DDL irreversível) é um passo manual do operador, ou automático
+ * só com app.images.drop-legacy-column=true em um único nó.
+ */
+@Service
+@Slf4j
+public class AdvantagePhotoMigrationService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageStore imageStore;
+    private final ImageVariantService imageVariantService;
+    private final boolean dropLegacyColumn;
+
+    public AdvantagePhotoMigrationService(JdbcTemplate jdbcTemplate,
+                                          ImageStore imageStore,
+                                          ImageVariantService imageVariantService,
+                                          @Value("${app.images.drop-legacy-column:false}") boolean dropLegacyColumn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageStore = imageStore;
+        this.imageVariantService = imageVariantService;
+        this.dropLegacyColumn = dropLegacyColumn;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        migrate();
+    }
+
+    /**
+     * @return quantidade de fotos movidas
+     */
+    public int migrate() {
+        if (!legacyColumnExists()) {
+            return 0;
+        }
+
+        // Linhas que já têm photo_key e ainda guardam o Base64 só precisam ter a coluna limpa
+        jdbcTemplate.update("UPDATE advantages SET photo = NULL WHERE photo IS NOT NULL AND photo_key IS NOT NULL");
+
+        List<Long> ids = jdbcTemplate.queryForList(
+            "SELECT id FROM advantages WHERE photo IS NOT NULL AND photo_key IS NULL ORDER BY id", Long.class);
+        if (ids.isEmpty()) {
+            dropLegacyColumnIfEmpty();
+            return 0;
+        }
+
+        log.info("Movendo {} fotos de vantagens para o armazenamento de imagens", ids.size());
+        int migrated = 0;
+        for (Long id : ids) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT photo FROM advantages WHERE id = ? AND photo_key IS NULL", id);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            String photo = (String) rows.get(0).get("photo");
+            if (photo == null || photo.isBlank()) {
+                jdbcTemplate.update("UPDATE advantages SET photo = NULL WHERE id = ?", id);
+                continue;
+            }
+
+            try {
+                DataUrls.Decoded image = DataUrls.decode(photo);
+                String key = imageStore.store(image.content());
+                imageVariantService.generateVariants(key);
+                migrated += jdbcTemplate.update(
+                    "UPDATE advantages SET photo_key = ?, photo_type = COALESCE(photo_type, ?), photo = NULL " +
+                    "WHERE id = ? AND photo_key IS NULL",
+                    key, ImageFormats.contentTypeForKey(key), id);
+            } catch (IllegalArgumentException | BusinessException e) {
+                // Foto corrompida ou em formato não suportado: guarda à parte para correção manual
+                log.warn("Não foi possível migrar a foto da vantagem {}: {}", id, e.getMessage());
+                setAside(id, e.getMessage());
+            } catch (UncheckedIOException e) {
+                // Falha do armazenamento (disco cheio, permissão), não da foto: a linha fica
+                // como está e a migração é retomada na próxima execução
+                log.error("Migração de fotos interrompida na vantagem {}: {}", id, e.getMessage());
+                throw e;
+            }
+        }
+        log.info("{} fotos de vantagens migradas", migrated);
+        dropLegacyColumnIfEmpty();
+        return migrated;
+    }
+
+    private void setAside(Long id, String error) {
+        String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        jdbcTemplate.update(
+            "INSERT IGNORE INTO advantage_legacy_photos (advantage_id, photo, error, created_at) " +
+            "SELECT id, photo, ?, NOW() FROM advantages WHERE id = ? AND photo IS NOT NULL",
+            message, id);
+        jdbcTemplate.update("UPDATE advantages SET photo = NULL WHERE id = ?", id);
+    }
+
+    private void dropLegacyColumnIfEmpty() {
+        Integer pending = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM advantages WHERE photo IS NOT NULL", Integer.class);
+        if (pending == null || pending != 0) {
+            return;
+        }
+        if (!dropLegacyColumn) {
+            log.info("Coluna legada advantages.photo está vazia e pode ser removida: " +
+                "ALTER TABLE advantages DROP COLUMN photo (ou app.images.drop-legacy-column=true)");
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE advantages DROP COLUMN photo");
+        log.info("Coluna legada advantages.photo removida");
+    }
+
+    private boolean legacyColumnExists() {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_schema = DATABASE() AND table_name = 'advantages' AND column_name = 'photo'",
+            Integer.class);
+        return count != null && count > 0;
+    }
+}
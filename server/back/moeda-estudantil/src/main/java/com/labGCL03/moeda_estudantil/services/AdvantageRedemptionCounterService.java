@@ -0,0 +1,75 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Confere advantages.times_redeemed com a quantidade de cupons emitidos e corrige as
+ * diferenças (vantagens anteriores à coluna ou contagens alteradas fora do resgate).
+ *
+ * Avança por faixas de ID, cada uma em um UPDATE curto, e só escreve as linhas que
+ * divergem. Roda ao subir a aplicação e toda madrugada.
+ *
+ * Cupons de promoção relâmpago ainda não contados (redemption_counted = false) ficam de
+ * fora: o FlashSaleInventoryService os soma depois, e a conferência roda com essas
+ * contagens pausadas para as duas não se cruzarem.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdvantageRedemptionCounterService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String RECONCILE_SQL =
+        "UPDATE advantages a " +
+        "JOIN (SELECT adv.id, COUNT(c.id) AS total FROM advantages adv " +
+        "      LEFT JOIN coupons c ON c.advantage_id = adv.id AND c.redemption_counted = TRUE " +
+        "      WHERE adv.id > ? AND adv.id <= ? GROUP BY adv.id) counted ON counted.id = a.id " +
+        "SET a.times_redeemed = counted.total " +
+        "WHERE a.times_redeemed <> counted.total";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AdvantageCatalogService advantageCatalogService;
+    private final FlashSaleInventoryService flashSaleInventory;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // Todos os dias às 3h30
+    public void reconcileNightly() {
+        reconcile();
+    }
+
+    /**
+     * @return quantidade de vantagens corrigidas
+     */
+    public int reconcile() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM advantages", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+
+        int fixed = flashSaleInventory.withRedemptionsCounted(() -> {
+            int updated = 0;
+            for (long from = 0; from < maxId; from += BATCH_SIZE) {
+                updated += jdbcTemplate.update(RECONCILE_SQL, from, Math.min(from + BATCH_SIZE, maxId));
+            }
+            return updated;
+        });
+        if (fixed > 0) {
+            log.warn("times_redeemed corrigido em {} vantagens", fixed);
+            advantageCatalogService.invalidateAll();
+        }
+        return fixed;
+    }
+}
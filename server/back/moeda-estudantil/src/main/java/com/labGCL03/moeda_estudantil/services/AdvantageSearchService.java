@@ -0,0 +1,100 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.util.AfterCommit;
+import com.labGCL03.moeda_estudantil.util.TrigramIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Busca de vantagens por nome, empresa e descrição sobre um TrigramIndex em memória.
+ *
+ * O índice é montado quando a aplicação sobe e mantido pelas escritas do AdvantageService
+ * (e pela troca de nome da empresa), sempre depois do commit. Até o índice ficar pronto a
+ * busca usa a consulta LIKE do repositório.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdvantageSearchService {
+
+    private static final int MAX_RESULTS = 50;
+
+    private final AdvantageRepository advantageRepository;
+
+    // Pesos: nome, empresa, descrição
+    private final TrigramIndex index = new TrigramIndex(3.0, 2.0, 1.0);
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        advantageRepository.findSearchRows().forEach(this::put);
+        ready = true;
+        log.info("Índice de busca de vantagens montado: {} documentos em {} ms",
+                 index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return vantagens mais relevantes para o texto, da mais para a menos relevante
+     */
+    public List<Advantage> search(String query) {
+        if (!ready) {
+            return advantageRepository.searchAdvantagesByName(query);
+        }
+        List<Long> ids = index.search(query, MAX_RESULTS);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return advantageRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(advantage -> rank.get(advantage.getId())))
+                .toList();
+    }
+
+    /**
+     * IDs que casam com o texto, do mais para o menos relevante, para filtrar outras consultas.
+     *
+     * @return null enquanto o índice não está pronto (quem chama deve usar LIKE)
+     */
+    public List<Long> matchingIds(String query, int limit) {
+        return ready ? index.search(query, limit) : null;
+    }
+
+    public void indexAfterCommit(Advantage advantage) {
+        long id = advantage.getId();
+        String name = advantage.getName();
+        String description = advantage.getDescription();
+        String companyName = advantage.getCompany() != null ? advantage.getCompany().getName() : null;
+        AfterCommit.run(() -> index.put(id, name, companyName, description));
+    }
+
+    public void removeAfterCommit(Long advantageId) {
+        AfterCommit.run(() -> index.remove(advantageId));
+    }
+
+    /**
+     * Reindexa as vantagens da empresa (ex.: após mudança de nome).
+     */
+    public void reindexCompanyAfterCommit(Long companyId) {
+        AfterCommit.run(() -> advantageRepository.findSearchRowsByCompanyId(companyId).forEach(this::put));
+    }
+
+    private void put(Object[] row) {
+        index.put((Long) row[0], (String) row[1], (String) row[3], (String) row[2]);
+    }
+}
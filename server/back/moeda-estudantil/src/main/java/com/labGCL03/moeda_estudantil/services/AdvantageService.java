@@ -8,9 +8,13 @@ import com.labGCL03.moeda_estudantil.exception.BusinessException;
 import com.labGCL03.moeda_estudantil.exception.ResourceNotFoundException;
 import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
 import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import com.labGCL03.moeda_estudantil.util.DataUrls;
+import com.labGCL03.moeda_estudantil.util.ImageFormats;
+import com.labGCL03.moeda_estudantil.util.ImageUrls;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -23,6 +27,10 @@ public class AdvantageService {
 
     private final AdvantageRepository advantageRepository;
     private final CompanyRepository companyRepository;
+    private final ImageStore imageStore;
+    private final AdvantageSearchService advantageSearchService;
+    private final ImageVariantService imageVariantService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Advantage> findAll() {
         return advantageRepository.findAll();
@@ -52,7 +60,7 @@ public class AdvantageService {
         if (name == null || name.isBlank()) {
             throw new BusinessException("Nome para busca é obrigatório");
         }
-        return advantageRepository.searchAdvantagesByName(name);
+        return advantageSearchService.search(name);
     }
 
     public Advantage create(AdvantageRequestDTO dto) {
@@ -68,12 +76,15 @@ public class AdvantageService {
         advantage.setDescription(dto.getDescription());
         advantage.setCostInCoins(dto.getCostInCoins());
         advantage.setAvailableQuantity(dto.getAvailableQuantity());
-        advantage.setPhoto(dto.getPhoto());
+        advantage.setFlashSale(Boolean.TRUE.equals(dto.getFlashSale()));
         advantage.setPhotoName(dto.getPhotoName());
         advantage.setPhotoType(dto.getPhotoType());
+        applyPhoto(advantage, dto.getPhoto());
         advantage.setCompany(company);
         
         Advantage savedAdvantage = advantageRepository.save(advantage);
+        advantageSearchService.indexAfterCommit(savedAdvantage);
+        publishChanged(savedAdvantage);
         log.info("Vantagem criada com sucesso. ID: {}", savedAdvantage.getId());
         
         return savedAdvantage;
@@ -100,13 +111,8 @@ public class AdvantageService {
             advantage.setCostInCoins(dto.getCostInCoins());
         }
         
-        // Permite atualizar availableQuantity (inclusive para null = ilimitado)
-        if (dto.getAvailableQuantity() != null) {
-            advantage.setAvailableQuantity(dto.getAvailableQuantity());
-        }
-        
-        if (dto.getPhoto() != null) {
-            advantage.setPhoto(dto.getPhoto());
+        if (dto.getFlashSale() != null) {
+            advantage.setFlashSale(dto.getFlashSale());
         }
         
         if (dto.getPhotoName() != null) {
@@ -117,7 +123,20 @@ public class AdvantageService {
             advantage.setPhotoType(dto.getPhotoType());
         }
         
+        if (dto.getPhoto() != null) {
+            applyPhoto(advantage, dto.getPhoto());
+        }
+        
         Advantage updatedAdvantage = advantageRepository.save(advantage);
+        
+        // O estoque muda por UPDATE atômico, sem sobrescrever resgates concorrentes
+        if (dto.getAvailableQuantity() != null) {
+            advantageRepository.setStock(id, dto.getAvailableQuantity());
+            updatedAdvantage = findById(id);
+        }
+        
+        advantageSearchService.indexAfterCommit(updatedAdvantage);
+        publishChanged(updatedAdvantage);
         log.info("Vantagem atualizada com sucesso. ID: {}", updatedAdvantage.getId());
         
         return updatedAdvantage;
@@ -138,6 +157,8 @@ public class AdvantageService {
         }
         
         advantageRepository.delete(advantage);
+        advantageSearchService.removeAfterCommit(id);
+        publishChanged(advantage);
         log.info("Vantagem deletada com sucesso. ID: {}", id);
     }
 
@@ -168,17 +189,51 @@ public class AdvantageService {
             throw new BusinessException("Quantidade a adicionar deve ser maior que zero");
         }
         
-        // Se a vantagem era ilimitada (null), começa com a quantidade fornecida
-        if (advantage.getAvailableQuantity() == null) {
-            advantage.setAvailableQuantity(quantityToAdd);
-        } else {
-            // Adiciona à quantidade existente
-            advantage.setAvailableQuantity(advantage.getAvailableQuantity() + quantityToAdd);
-        }
+        // Soma no banco: se a vantagem era ilimitada (null), começa com a quantidade fornecida
+        advantageRepository.addStock(advantage.getId(), quantityToAdd);
         
-        Advantage reactivatedAdvantage = advantageRepository.save(advantage);
+        Advantage reactivatedAdvantage = findById(id);
+        publishChanged(reactivatedAdvantage);
         log.info("Vantagem reativada com sucesso. Nova quantidade: {}", reactivatedAdvantage.getAvailableQuantity());
         
         return reactivatedAdvantage;
     }
+
+    private void publishChanged(Advantage advantage) {
+        eventPublisher.publishEvent(new AdvantageChangedEvent(advantage.getId(), advantage.getCompany().getId()));
+    }
+
+    /**
+     * Aceita a foto como data URL Base64 (gravada no ImageStore), como URL já devolvida
+     * pela API (mantém a imagem atual) ou vazia (remove a foto).
+     */
+    private void applyPhoto(Advantage advantage, String photo) {
+        if (photo == null || photo.isBlank()) {
+            advantage.setPhotoKey(null);
+            return;
+        }
+
+        String urlKey = ImageUrls.keyFromUrl(photo);
+        if (urlKey != null) {
+            // A API devolve a URL da variante; a vantagem guarda sempre a chave do original
+            String existingKey = imageVariantService.originalOf(urlKey)
+                    .orElseThrow(() -> new BusinessException("Imagem não encontrada: " + photo));
+            advantage.setPhotoKey(existingKey);
+            return;
+        }
+
+        if (!DataUrls.isDataUrl(photo)) {
+            throw new BusinessException("Foto deve ser uma imagem em Base64 ou uma URL de imagem enviada anteriormente");
+        }
+        DataUrls.Decoded image;
+        try {
+            image = DataUrls.decode(photo);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Imagem em Base64 inválida");
+        }
+        String key = imageStore.store(image.content());
+        imageVariantService.generateVariants(key);
+        advantage.setPhotoKey(key);
+        advantage.setPhotoType(ImageFormats.contentTypeForKey(key));
+    }
 }
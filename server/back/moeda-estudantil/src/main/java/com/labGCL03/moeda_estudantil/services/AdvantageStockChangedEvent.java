@@ -0,0 +1,9 @@
+package com.labGCL03.moeda_estudantil.services;
+
+/**
+ * Publicado quando só o estoque ou a contagem de resgates de uma vantagem mudou (resgate,
+ * lotes da promoção relâmpago). Diferente do AdvantageChangedEvent, não descarta as
+ * listagens gerais do catálogo, que só dependem de a vantagem estar disponível ou não.
+ */
+public record AdvantageStockChangedEvent(Long advantageId, Long companyId) {
+}
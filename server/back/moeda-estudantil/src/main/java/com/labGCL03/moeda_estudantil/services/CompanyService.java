@@ -10,6 +10,7 @@ import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -21,6 +22,8 @@ import java.util.List;
 public class CompanyService {
 
     private final CompanyRepository companyRepository;
+    private final AdvantageSearchService advantageSearchService;
+    private final ApplicationEventPublisher eventPublisher;
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
     public List<Company> findAll() {
@@ -78,6 +81,9 @@ public class CompanyService {
         // Atualizar campos se fornecidos
         if (dto.getName() != null && !dto.getName().isBlank()) {
             company.setName(dto.getName());
+            // O nome da empresa faz parte do índice de busca das vantagens
+            advantageSearchService.reindexCompanyAfterCommit(id);
+            eventPublisher.publishEvent(new AdvantageChangedEvent(null, id));
         }
         
         if (dto.getEmail() != null && !dto.getEmail().isBlank()) {
@@ -0,0 +1,177 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.util.CouponCodes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entrega códigos de cupom já prontos e únicos a partir de um pool em memória.
+ *
+ * Os códigos vêm de blocos de números de sequência reservados na tabela id_generators
+ * (linha coupon_codes) com um único comando atômico; cada número passa pela permutação de
+ * CouponCodes, então a unicidade é garantida sem consultar coupons. Quando o pool fica
+ * abaixo de low-watermark um refill é disparado em segundo plano; se chegar a esvaziar,
+ * o resgate reserva um bloco na hora. Números de blocos perdidos num restart são apenas
+ * pulados.
+ *
+ * A reserva de bloco sempre roda em transação própria, como no TableGenerator do
+ * Hibernate: dentro da transação do resgate, um rollback desfaria a reserva mas deixaria
+ * os códigos no pool, e o próximo bloco repetiria os mesmos números.
+ */
+@Service
+@Slf4j
+public class CouponCodeAllocator {
+
+    private static final String SEQUENCE_NAME = "coupon_codes";
+
+    // Reserva o bloco e devolve o novo next_val via LAST_INSERT_ID, na mesma conexão
+    private static final String RESERVE_SQL =
+        "INSERT INTO id_generators (sequence_name, next_val) VALUES (?, LAST_INSERT_ID(?)) " +
+        "ON DUPLICATE KEY UPDATE next_val = LAST_INSERT_ID(next_val + ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final Executor taskExecutor;
+    private final long key;
+    private final int blockSize;
+    private final int lowWatermark;
+    private final BlockingQueue<String> pool;
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+
+    public CouponCodeAllocator(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("taskExecutor") Executor taskExecutor,
+                               @Value("${app.coupons.code-key:}") String key,
+                               @Value("${app.coupons.pool-size:2000}") int poolSize,
+                               @Value("${app.coupons.low-watermark:500}") int lowWatermark,
+                               @Value("${app.coupons.block-size:500}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+        this.key = parseKey(key);
+        this.blockSize = blockSize;
+        this.lowWatermark = lowWatermark;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillOnStartup() {
+        scheduleRefill();
+    }
+
+    /**
+     * Verificação periódica, caso algum refill em segundo plano tenha falhado.
+     */
+    @Scheduled(fixedDelay = 5_000)
+    public void topUp() {
+        if (pool.size() < lowWatermark) {
+            scheduleRefill();
+        }
+    }
+
+    public String next() {
+        String code = pool.poll();
+        if (pool.size() < lowWatermark) {
+            scheduleRefill();
+        }
+        while (code == null) {
+            log.warn("Pool de códigos de cupom vazio; reservando bloco durante o resgate");
+            refill();
+            code = pool.poll();
+        }
+        return code;
+    }
+
+    public int available() {
+        return pool.size();
+    }
+
+    private void scheduleRefill() {
+        if (!refillScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    refill();
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao reabastecer o pool de códigos de cupom: {}", e.getMessage());
+                } finally {
+                    refillScheduled.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Executor cheio (é o mesmo dos e-mails): o topUp agendado tenta de novo, e o
+            // resgate que disparou o refill já tem seu código
+            refillScheduled.set(false);
+            log.warn("Refill do pool de códigos de cupom recusado pelo executor: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void refill() {
+        while (pool.remainingCapacity() >= blockSize) {
+            long end = reserveBlock();
+            for (long sequence = end - blockSize; sequence < end; sequence++) {
+                pool.offer(CouponCodes.format(CouponCodes.scramble(sequence, key)));
+            }
+        }
+    }
+
+    /**
+     * A chave não tem valor padrão: com uma chave conhecida (ex.: publicada no repositório)
+     * qualquer um calcula scramble(0..N) e lista todos os cupons emitidos. Sem ela a
+     * aplicação não sobe.
+     */
+    private static long parseKey(String key) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalStateException(
+                "Chave dos códigos de cupom não configurada: defina COUPON_CODE_KEY (app.coupons.code-key)");
+        }
+        try {
+            return Long.parseLong(key.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("COUPON_CODE_KEY (app.coupons.code-key) deve ser um número inteiro de 64 bits");
+        }
+    }
+
+    /**
+     * @return o fim (exclusivo) do bloco reservado; o bloco é [fim - blockSize, fim)
+     */
+    private long reserveBlock() {
+        Long end = newTransaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement reserve = connection.prepareStatement(RESERVE_SQL)) {
+                reserve.setString(1, SEQUENCE_NAME);
+                reserve.setLong(2, blockSize);
+                reserve.setLong(3, blockSize);
+                reserve.executeUpdate();
+            }
+            try (PreparedStatement last = connection.prepareStatement("SELECT LAST_INSERT_ID()");
+                 ResultSet rs = last.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }));
+        if (end == null || end > CouponCodes.MAX_SEQUENCE) {
+            throw new IllegalStateException("Sequência de códigos de cupom esgotada");
+        }
+        return end;
+    }
+}
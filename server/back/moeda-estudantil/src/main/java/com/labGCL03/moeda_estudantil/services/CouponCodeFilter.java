@@ -0,0 +1,195 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtro de Bloom com todos os códigos de cupom emitidos, consultado antes do findByCode.
+ *
+ * Um "não contém" garante que o código não existe e dispensa a consulta ao índice de
+ * coupons (tentativas de adivinhar códigos caem quase todas aqui). Enquanto o filtro não
+ * termina de ser montado, toda consulta segue para o banco.
+ *
+ * Os códigos novos entram no filtro na emissão, antes do commit: se o resgate falhar o
+ * código fica como falso positivo, o que só custa uma consulta. Quando o número de códigos
+ * passa do previsto o filtro é reconstruído com o dobro do tamanho, no taskExecutor.
+ *
+ * A reconstrução não pode perder códigos (um falso negativo recusaria um cupom real). O
+ * filtro novo é publicado em building antes da leitura da tabela, então o que é emitido
+ * depois entra nele direto; o que foi emitido antes e ainda não commitou está em inFlight e
+ * é copiado para ele logo após a publicação; o resto já commitou e aparece na leitura.
+ *
+ * Só enxerga os códigos emitidos por esta instância, então depende de haver uma única
+ * instância da aplicação por banco (com várias, cada uma recusaria os cupons emitidos pelas
+ * outras); o SingleInstanceLock impede a subida de uma segunda.
+ */
+@Service
+@Slf4j
+public class CouponCodeFilter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor taskExecutor;
+    private final long minExpectedCodes;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong definiteMisses = new AtomicLong();
+    private final AtomicLong passedThrough = new AtomicLong();
+    // Códigos emitidos cuja transação ainda não terminou
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public CouponCodeFilter(JdbcTemplate jdbcTemplate,
+                            @Qualifier("taskExecutor") Executor taskExecutor,
+                            @Value("${app.coupons.filter.expected-codes:100000}") long minExpectedCodes,
+                            @Value("${app.coupons.filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskExecutor = taskExecutor;
+        this.minExpectedCodes = minExpectedCodes;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Se o filtro passou da capacidade planejada, reconstrói maior. A leitura da tabela roda
+     * no taskExecutor para não prender a thread única do agendador.
+     */
+    @Scheduled(fixedDelay = 300_000)
+    public void checkSaturation() {
+        BloomFilter current = filter;
+        if (ready && current.insertions() > current.expectedInsertions() && !rebuilding.get()) {
+            log.info("Filtro de códigos de cupom saturado ({} de {} previstos); reconstruindo",
+                current.insertions(), current.expectedInsertions());
+            taskExecutor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Registra um código emitido. Deve ser chamado dentro da transação que grava o cupom:
+     * até ela terminar o código fica em inFlight, de onde uma reconstrução o recupera.
+     */
+    public void add(String code) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.add(code);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(code);
+                }
+            });
+        }
+        // building antes de filter, na ordem inversa da troca em rebuild (filter = next e só
+        // depois building = null): quem chega a ver building já nulo vê o filtro novo
+        BloomFilter next = building;
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(code);
+        }
+        if (next != null) {
+            next.put(code);
+        }
+    }
+
+    /**
+     * @return false só quando o código com certeza não foi emitido
+     */
+    public boolean mightContain(String code) {
+        BloomFilter current = filter;
+        if (!ready || current == null || current.mightContain(code)) {
+            passedThrough.incrementAndGet();
+            return true;
+        }
+        definiteMisses.incrementAndGet();
+        return false;
+    }
+
+    public Map<String, Object> stats() {
+        BloomFilter current = filter;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("definiteMisses", definiteMisses.get());
+        stats.put("passedThrough", passedThrough.get());
+        if (current != null) {
+            stats.put("codes", current.insertions());
+            stats.put("expectedCodes", current.expectedInsertions());
+            stats.put("bits", current.bitCount());
+            stats.put("hashes", current.hashCount());
+            stats.put("saturation", current.saturation());
+            stats.put("estimatedFalsePositiveRate", current.estimatedFalsePositiveRate());
+        }
+        return stats;
+    }
+
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupons", Long.class);
+            BloomFilter next = newFilter(Math.max(minExpectedCodes, total * 2));
+            building = next;
+            // Emitidos antes da publicação e ainda sem commit: podem ficar fora da leitura abaixo
+            inFlight.forEach(next::put);
+
+            stream(next);
+            filter = next;
+            building = null;
+            ready = true;
+
+            log.info("Filtro de códigos de cupom montado: {} códigos, {} bits, {} hashes",
+                next.insertions(), next.bitCount(), next.hashCount());
+        } catch (RuntimeException e) {
+            building = null;
+            log.warn("Falha ao montar o filtro de códigos de cupom: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    BloomFilter newFilter(long expectedCodes) {
+        return new BloomFilter(expectedCodes, falsePositiveRate);
+    }
+
+    /**
+     * Lê os códigos em streaming (fetch size MIN_VALUE no driver do MySQL), sem carregar a
+     * tabela em memória.
+     */
+    private void stream(BloomFilter target) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT code FROM coupons",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (ResultSet rs) -> {
+            target.put(rs.getString(1));
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.labGCL03.moeda_estudantil.services;
 
+import com.labGCL03.moeda_estudantil.dto.AdvantageSnapshot;
 import com.labGCL03.moeda_estudantil.entities.Advantage;
 import com.labGCL03.moeda_estudantil.entities.Company;
 import com.labGCL03.moeda_estudantil.entities.Coupon;
@@ -7,9 +8,15 @@ import com.labGCL03.moeda_estudantil.entities.Student;
 import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
 import com.labGCL03.moeda_estudantil.repositories.CouponRepository;
 import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.util.CouponCodes;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -23,8 +30,46 @@ public class CouponService {
     private final AdvantageRepository advantageRepository;
     private final TransactionService transactionService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final AdvantageCatalogService advantageCatalogService;
+    private final FlashSaleInventoryService flashSaleInventory;
+    private final PlatformTransactionManager transactionManager;
+    private final CouponCodeAllocator couponCodeAllocator;
+    private final CouponCodeFilter couponCodeFilter;
+
+    private TransactionTemplate redemptionTransaction;
+
+    @PostConstruct
+    void init() {
+        redemptionTransaction = new TransactionTemplate(transactionManager);
+    }
 
+    /**
+     * Resgata a vantagem em uma transação curta. Nas vantagens em promoção relâmpago a
+     * unidade é reservada antes, fora da transação, no FlashSaleInventoryService; se o
+     * resgate falhar ela volta para o estoque em memória.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public Coupon redeemAdvantage(Long studentId, Long advantageId) {
+        AdvantageSnapshot snapshot = advantageCatalogService.findById(advantageId);
+        if (!snapshot.flashSale()) {
+            return redemptionTransaction.execute(status -> redeem(studentId, advantageId, false));
+        }
+
+        FlashSaleInventoryService.Reservation reservation = flashSaleInventory.reserve(
+            advantageId, snapshot.companyId(), snapshot.availableQuantity() == null);
+        try {
+            Coupon coupon = redemptionTransaction.execute(status -> redeem(studentId, advantageId, true));
+            reservation.confirm();
+            return coupon;
+        } catch (RuntimeException e) {
+            reservation.release();
+            throw e;
+        }
+    }
+
+    private Coupon redeem(Long studentId, Long advantageId, boolean reserved) {
         // Buscar aluno e vantagem com relações eager-loaded
         Student student = studentRepository.findByIdWithInstitution(studentId)
             .orElseThrow(() -> new RuntimeException("Aluno não encontrado"));
@@ -32,31 +77,43 @@ public class CouponService {
         Advantage advantage = advantageRepository.findByIdWithCompany(advantageId)
             .orElseThrow(() -> new RuntimeException("Vantagem não encontrada"));
 
-        // Validações
+        // Validações (rápidas, sobre os dados lidos; a garantia vem dos UPDATEs condicionais abaixo)
         if (student.getCoinBalance() < advantage.getCostInCoins()) {
             throw new IllegalArgumentException("Saldo insuficiente. Você possui " + 
                 student.getCoinBalance() + " moedas, mas esta vantagem custa " + 
                 advantage.getCostInCoins() + " moedas.");
         }
 
-        // Verifica se há cupons disponíveis
-        if (!advantage.isAvailable()) {
+        // Verifica se há cupons disponíveis (na promoção relâmpago a unidade já foi reservada)
+        if (!reserved && !advantage.isAvailable()) {
             throw new IllegalArgumentException("Não há mais cupons disponíveis para esta vantagem");
         }
 
-        // Decrementa a quantidade disponível da vantagem
-        advantage.decrementQuantity();
-        advantageRepository.save(advantage);
+        // Débito e baixa de estoque com UPDATE condicional: verificação e escrita no mesmo
+        // comando, então dois resgates do último cupom não passam juntos. O débito vem antes
+        // para que o lock da linha da vantagem (disputada) fique aberto o menor tempo possível.
+        // As entidades carregadas não são alteradas, para o flush não regravar valores lidos antes
+        if (studentRepository.debitBalance(studentId, advantage.getCostInCoins()) == 0) {
+            throw new IllegalArgumentException("Saldo insuficiente para resgatar esta vantagem");
+        }
+        if (!reserved) {
+            if (advantageRepository.claimCoupon(advantageId) == 0) {
+                throw new IllegalArgumentException("Não há mais cupons disponíveis para esta vantagem");
+            }
+            eventPublisher.publishEvent(new AdvantageStockChangedEvent(advantage.getId(), advantage.getCompany().getId()));
+        }
 
-        // Usar o método da entidade Student para resgatar vantagem (desconta saldo)
-        Coupon coupon = student.redeemAdvantage(advantage);
-        
-        // Garantir que as relações do coupon estejam definidas antes de salvar
+        // Saldo atualizado para a resposta, relido dentro da transação (a linha está bloqueada)
+        entityManager.refresh(student);
+        student.getRedeemedAdvantages().add(advantage);
+
+        Coupon coupon = new Coupon();
+        coupon.setCode(couponCodeAllocator.next());
+        couponCodeFilter.add(coupon.getCode());
         coupon.setStudent(student);
         coupon.setAdvantage(advantage);
-        
-        // Persistir as alterações (student tem saldo atualizado)
-        studentRepository.save(student);
+        // Na promoção relâmpago times_redeemed é somado depois, pelo FlashSaleInventoryService
+        coupon.setRedemptionCounted(!reserved);
         Coupon savedCoupon = couponRepository.save(coupon);
         
         // Importante: manter as referências carregadas no coupon retornado
@@ -79,7 +136,7 @@ public class CouponService {
     }
 
     public void markCouponAsUsed(String code) {
-        Coupon coupon = couponRepository.findByCode(code)
+        Coupon coupon = couponRepository.findByCode(requireWellFormed(code))
             .orElseThrow(() -> new RuntimeException("Cupom não encontrado"));
 
         if (coupon.isUsed()) {
@@ -99,7 +156,12 @@ public class CouponService {
     }
 
     public Coupon validateCoupon(String code) {
-        Coupon coupon = couponRepository.findByCode(code)
+        String canonical = requireWellFormed(code);
+        // Código que com certeza nunca foi emitido responde sem consultar o banco
+        if (!couponCodeFilter.mightContain(canonical)) {
+            throw new RuntimeException("Cupom não encontrado");
+        }
+        Coupon coupon = couponRepository.findByCode(canonical)
             .orElseThrow(() -> new RuntimeException("Cupom não encontrado"));
 
         if (coupon.isUsed()) {
@@ -108,4 +170,15 @@ public class CouponService {
 
         return coupon;
     }
-}
\ No newline at end of file
+
+    /**
+     * Recusa em memória códigos que não passam no formato/dígito verificador, sem ida ao banco.
+     */
+    private String requireWellFormed(String code) {
+        String canonical = CouponCodes.normalize(code);
+        if (canonical == null) {
+            throw new IllegalArgumentException("Código de cupom inválido");
+        }
+        return canonical;
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
@@ -66,6 +68,21 @@ public class EmailService {
         }
     }
 
+    public record CoinNotification(Student student, Integer amount, String reason) {
+    }
+
+    /**
+     * Envia, em um único job assíncrono, as notificações de uma transferência em lote.
+     */
+    @Async
+    public void notifyStudentsCoinReceived(List<CoinNotification> notifications, Teacher teacher) {
+        log.info("Enviando {} notificações de moedas recebidas do professor {}", notifications.size(), teacher.getName());
+        for (CoinNotification notification : notifications) {
+            // Chamada interna: executa de forma síncrona dentro deste mesmo job
+            notifyStudentCoinReceived(notification.student(), notification.amount(), notification.reason(), teacher);
+        }
+    }
+
     @Async
     public void sendCouponToStudent(Student student, Coupon coupon) {
         if (!emailEnabled) {
@@ -0,0 +1,146 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+import com.labGCL03.moeda_estudantil.util.ImageFormats;
+import com.labGCL03.moeda_estudantil.util.ImageUrls;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * ImageStore no diretório de uploads (file.upload-dir), no layout de ImageUrls.
+ *
+ * O conteúdo é copiado em blocos para um arquivo temporário enquanto o SHA-256 é
+ * calculado, então a memória usada por gravação é só o buffer, qualquer que seja o
+ * tamanho da imagem. Ao final o arquivo é publicado na chave com um move atômico;
+ * leitores nunca veem um arquivo pela metade.
+ */
+@Service
+@Slf4j
+public class FileSystemImageStore implements ImageStore {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path root;
+    private final Path tempDir;
+    private final long maxBytes;
+
+    public FileSystemImageStore(@Value("${file.upload-dir:uploads}") String uploadDir,
+                                @Value("${app.images.max-bytes:5242880}") long maxBytes) {
+        this.root = Paths.get(uploadDir).toAbsolutePath();
+        // Mesmo volume do destino, para que o move final seja atômico
+        this.tempDir = root.resolve("images").resolve(".tmp");
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String store(InputStream content) throws IOException {
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] signature = new byte[ImageFormats.SIGNATURE_LENGTH];
+            int signatureLength = 0;
+            long total = 0;
+
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new BusinessException("A imagem deve ter no máximo " + (maxBytes / (1024 * 1024)) + "MB");
+                    }
+                    if (signatureLength < signature.length) {
+                        int n = Math.min(read, signature.length - signatureLength);
+                        System.arraycopy(buffer, 0, signature, signatureLength, n);
+                        signatureLength += n;
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            if (total == 0) {
+                throw new BusinessException("Arquivo vazio");
+            }
+            String extension = ImageFormats.detectExtension(signature, signatureLength);
+            if (extension == null) {
+                throw new BusinessException("Formato de imagem não suportado (aceitos: JPG, PNG, GIF, WEBP)");
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            if (publish(temp, key)) {
+                log.debug("Imagem gravada: {} ({} bytes)", key, total);
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void storeVariant(String variantKey, byte[] content) throws IOException {
+        if (!ImageUrls.isValidKey(variantKey)) {
+            throw new IllegalArgumentException("Chave de variante inválida: " + variantKey);
+        }
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "variant-", ".tmp");
+        try {
+            Files.write(temp, content);
+            publish(temp, variantKey);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Move o arquivo temporário para a chave, se ela ainda não existir.
+     */
+    private boolean publish(Path temp, String key) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    @Override
+    public Optional<InputStream> open(String key) throws IOException {
+        if (!exists(key)) {
+            return Optional.empty();
+        }
+        return Optional.of(Files.newInputStream(resolve(key)));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return ImageUrls.isValidKey(key) && Files.exists(resolve(key));
+    }
+
+    Path resolve(String key) {
+        return root.resolve(ImageUrls.relativePath(key));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
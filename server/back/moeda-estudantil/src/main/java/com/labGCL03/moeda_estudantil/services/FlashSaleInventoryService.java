@@ -0,0 +1,300 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.util.StripedStock;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Estoque em memória das vantagens em modo promoção relâmpago (Advantage.flashSale).
+ *
+ * Em vez de cada resgate travar a linha da vantagem, o estoque é retirado do banco em lotes
+ * (batch-size unidades por UPDATE) para um StripedStock, de onde os resgates reservam sem
+ * lock. O lote sai de available_quantity e entra em reserved_quantity no mesmo UPDATE.
+ *
+ * Os cupons desses resgates são gravados com redemption_counted = false; periodicamente
+ * eles são marcados e somados a times_redeemed (e subtraídos de reserved_quantity) em uma
+ * única transação. Como a marca fica na linha do cupom, o AdvantageRedemptionCounterService
+ * pode contar só os cupons marcados sem risco de somar o mesmo resgate duas vezes.
+ *
+ * Uma reserva é devolvida ao estoque em memória se o resgate falhar; o estoque parado há
+ * mais de idle-return volta para available_quantity, assim como tudo ao desligar a
+ * aplicação. Se o processo cair, reserved_quantity guarda o que estava em memória: na
+ * subida, antes do servidor aceitar requisições, os cupons pendentes são somados e o que
+ * sobrou da reserva volta ao estoque. Isso só vale com uma única instância da aplicação por
+ * banco (a subida de uma devolveria as reservas em uso pelas outras), o que o
+ * SingleInstanceLock garante antes desta recuperação rodar.
+ */
+@Service
+@Slf4j
+public class FlashSaleInventoryService implements SmartInitializingSingleton {
+
+    /**
+     * Reserva feita por reserve; o chamador deve encerrá-la com confirm ou release.
+     */
+    public static final class Reservation {
+        private final Pool pool;
+        private final boolean fromStock;
+        private boolean done;
+
+        private Reservation(Pool pool, boolean fromStock) {
+            this.pool = pool;
+            this.fromStock = fromStock;
+        }
+
+        /** O resgate foi gravado: a unidade é consumida e o cupom fica para a próxima contagem. */
+        public void confirm() {
+            if (!done) {
+                done = true;
+                pool.uncounted.incrementAndGet();
+            }
+        }
+
+        /** O resgate falhou: a unidade volta ao estoque em memória. */
+        public void release() {
+            if (!done) {
+                done = true;
+                if (fromStock) {
+                    pool.stock.release();
+                }
+            }
+        }
+    }
+
+    private static final class Pool {
+        final Long advantageId;
+        final Long companyId;
+        final StripedStock stock;
+        // Resgates confirmados desde a última contagem; só indica se há cupons a contar,
+        // o número somado vem das linhas marcadas no banco
+        final AtomicInteger uncounted = new AtomicInteger();
+        final ReentrantLock refillLock = new ReentrantLock();
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Pool(Long advantageId, Long companyId, int stripes) {
+            this.advantageId = advantageId;
+            this.companyId = companyId;
+            this.stock = new StripedStock(stripes);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate newTransaction;
+    private final int batchSize;
+    private final long idleReturnMillis;
+    private final int stripes = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private final Map<Long, Pool> pools = new ConcurrentHashMap<>();
+    // Serializa a contagem dos cupons com a conferência do AdvantageRedemptionCounterService
+    private final ReentrantLock countLock = new ReentrantLock();
+
+    public FlashSaleInventoryService(JdbcTemplate jdbcTemplate,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.flash-sale.batch-size:20}") int batchSize,
+                                     @Value("${app.flash-sale.idle-return:30s}") Duration idleReturn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.idleReturnMillis = idleReturn.toMillis();
+    }
+
+    /**
+     * Devolve ao estoque o que ficou reservado por uma execução anterior que não desligou
+     * normalmente. Roda depois de criados todos os beans (o schema já foi atualizado) e antes
+     * de o servidor web começar a aceitar requisições.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Long> pending = jdbcTemplate.queryForList(
+            "SELECT DISTINCT advantage_id FROM coupons WHERE redemption_counted = FALSE", Long.class);
+        pending.forEach(this::countRedemptions);
+        Integer restored = newTransaction.execute(status -> jdbcTemplate.update(
+            "UPDATE advantages SET available_quantity = available_quantity + reserved_quantity, " +
+            "reserved_quantity = 0 WHERE reserved_quantity > 0"));
+        if (restored != null && restored > 0) {
+            log.warn("Estoque reservado de {} vantagens em promoção relâmpago devolvido após parada inesperada", restored);
+        }
+    }
+
+    /**
+     * Conta os resgates pendentes de todas as vantagens e executa a ação sem que novas
+     * contagens rodem no meio; quem confere times_redeemed com os cupons deve passar por aqui.
+     */
+    public <T> T withRedemptionsCounted(Supplier<T> action) {
+        countLock.lock();
+        try {
+            for (Pool pool : pools.values()) {
+                flushCounter(pool);
+            }
+            return action.get();
+        } finally {
+            countLock.unlock();
+        }
+    }
+
+    /**
+     * Reserva uma unidade da vantagem. Deve ser chamado fora da transação do resgate: a
+     * recarga abre uma transação própria e curta, e fazê-la dentro de outra prenderia duas
+     * conexões do pool por resgate.
+     *
+     * @param unlimited estoque ilimitado: nada a reservar, só a contagem de resgates
+     * @throws IllegalArgumentException se a vantagem estiver esgotada
+     */
+    public Reservation reserve(Long advantageId, Long companyId, boolean unlimited) {
+        Pool pool = pools.computeIfAbsent(advantageId, id -> new Pool(id, companyId, stripes));
+        pool.lastUsed = System.currentTimeMillis();
+        if (unlimited) {
+            return new Reservation(pool, false);
+        }
+        if (pool.stock.tryAcquire()) {
+            return new Reservation(pool, true);
+        }
+
+        // Estoque em memória vazio: só uma thread por vantagem vai ao banco buscar outro lote
+        pool.refillLock.lock();
+        try {
+            if (pool.stock.tryAcquire()) {
+                return new Reservation(pool, true);
+            }
+            int taken = takeFromDatabase(advantageId);
+            if (taken == 0) {
+                throw new IllegalArgumentException("Não há mais cupons disponíveis para esta vantagem");
+            }
+            pool.stock.add(taken - 1);
+            eventPublisher.publishEvent(new AdvantageStockChangedEvent(advantageId, pool.companyId));
+            return new Reservation(pool, true);
+        } finally {
+            pool.refillLock.unlock();
+        }
+    }
+
+    /**
+     * Unidades da vantagem em memória (já retiradas do banco e ainda não resgatadas).
+     */
+    public int heldStock(Long advantageId) {
+        Pool pool = pools.get(advantageId);
+        return pool != null ? pool.stock.available() : 0;
+    }
+
+    /**
+     * Grava os resgates acumulados e devolve ao banco o estoque das vantagens paradas.
+     */
+    @Scheduled(fixedDelayString = "${app.flash-sale.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Pool pool : pools.values()) {
+            flushCounter(pool);
+            if (now - pool.lastUsed > idleReturnMillis) {
+                returnStock(pool);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void returnAll() {
+        for (Pool pool : pools.values()) {
+            flushCounter(pool);
+            returnStock(pool);
+        }
+    }
+
+    private int takeFromDatabase(Long advantageId) {
+        Integer taken = newTransaction.execute(status -> {
+            List<Integer> rows = jdbcTemplate.queryForList(
+                "SELECT available_quantity FROM advantages WHERE id = ? FOR UPDATE", Integer.class, advantageId);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            Integer quantity = rows.get(0);
+            if (quantity == null) {
+                // Passou a ser ilimitada depois da leitura: libera um lote sem mexer no banco
+                return batchSize;
+            }
+            int amount = Math.min(quantity, batchSize);
+            if (amount > 0) {
+                jdbcTemplate.update("UPDATE advantages SET available_quantity = available_quantity - ?, " +
+                                    "reserved_quantity = reserved_quantity + ? WHERE id = ?",
+                                    amount, amount, advantageId);
+            }
+            return amount;
+        });
+        return taken != null ? taken : 0;
+    }
+
+    private void flushCounter(Pool pool) {
+        int confirmed = pool.uncounted.getAndSet(0);
+        if (confirmed == 0) {
+            return;
+        }
+        countLock.lock();
+        try {
+            if (countRedemptions(pool.advantageId) > 0) {
+                eventPublisher.publishEvent(new AdvantageStockChangedEvent(pool.advantageId, pool.companyId));
+            }
+        } catch (RuntimeException e) {
+            pool.uncounted.addAndGet(confirmed);
+            log.warn("Falha ao gravar resgates da vantagem {}: {}", pool.advantageId, e.getMessage());
+        } finally {
+            countLock.unlock();
+        }
+    }
+
+    /**
+     * Marca os cupons ainda não contados da vantagem e soma a mesma quantidade em
+     * times_redeemed, tirando-a de reserved_quantity, em uma transação. A linha da vantagem
+     * é travada antes dos cupons, na mesma ordem da conferência de times_redeemed.
+     *
+     * @return quantidade de resgates contados
+     */
+    private int countRedemptions(Long advantageId) {
+        Integer counted = newTransaction.execute(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM advantages WHERE id = ? FOR UPDATE", Long.class, advantageId);
+            int marked = jdbcTemplate.update(
+                "UPDATE coupons SET redemption_counted = TRUE WHERE redemption_counted = FALSE AND advantage_id = ?",
+                advantageId);
+            if (marked > 0) {
+                jdbcTemplate.update("UPDATE advantages SET times_redeemed = times_redeemed + ?, " +
+                                    "reserved_quantity = GREATEST(reserved_quantity - ?, 0) WHERE id = ?",
+                                    marked, marked, advantageId);
+            }
+            return marked;
+        });
+        return counted != null ? counted : 0;
+    }
+
+    private void returnStock(Pool pool) {
+        int unused = pool.stock.drain();
+        if (unused == 0) {
+            return;
+        }
+        try {
+            // Estoque que passou a ser ilimitado continua NULL; a reserva é zerada do mesmo jeito
+            jdbcTemplate.update("UPDATE advantages SET available_quantity = available_quantity + ?, " +
+                                "reserved_quantity = GREATEST(reserved_quantity - ?, 0) WHERE id = ?",
+                                unused, unused, pool.advantageId);
+            eventPublisher.publishEvent(new AdvantageStockChangedEvent(pool.advantageId, pool.companyId));
+            log.info("{} cupons não usados da vantagem {} devolvidos ao estoque", unused, pool.advantageId);
+        } catch (RuntimeException e) {
+            pool.stock.add(unused);
+            log.warn("Falha ao devolver estoque da vantagem {}: {}", pool.advantageId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/**
+ * Armazenamento de imagens endereçado por conteúdo: a chave é derivada do SHA-256 dos
+ * bytes, então a mesma imagem enviada várias vezes ocupa espaço uma única vez e uma
+ * chave nunca muda de conteúdo.
+ */
+public interface ImageStore {
+
+    /**
+     * Grava a imagem lida do stream (se ainda não existir) e devolve sua chave. O formato
+     * é identificado pela assinatura dos primeiros bytes; o stream não é fechado.
+     *
+     * @throws com.labGCL03.moeda_estudantil.exception.BusinessException se o conteúdo não for
+     *         uma imagem suportada ou exceder o tamanho máximo
+     */
+    String store(InputStream content) throws IOException;
+
+    default String store(byte[] content) {
+        try {
+            return store(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Grava uma variante derivada de um original (ex.: miniatura) sob a chave informada,
+     * ao lado do original.
+     */
+    void storeVariant(String variantKey, byte[] content) throws IOException;
+
+    Optional<InputStream> open(String key) throws IOException;
+
+    boolean exists(String key);
+}
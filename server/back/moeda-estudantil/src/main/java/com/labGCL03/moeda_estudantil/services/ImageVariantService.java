@@ -0,0 +1,213 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.enums.ImageSize;
+import com.labGCL03.moeda_estudantil.util.ImageUrls;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gera as variantes de largura fixa (ImageSize.THUMBNAIL e MEDIUM) das imagens do
+ * ImageStore, em segundo plano no pool "imageExecutor" e usando apenas javax.imageio.
+ *
+ * O original é decodificado uma única vez, já com subamostragem na leitura quando é muito
+ * maior que a maior variante, o que limita a memória por tarefa mesmo para fotos grandes.
+ * JPEG gera variantes JPEG; os demais formatos geram PNG para preservar transparência.
+ *
+ * As respostas da API apontam direto para o arquivo da variante (publishedKey); enquanto
+ * ela não existe, para o original, e um ImageVariantsReadyEvent avisa quando ficar pronta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageVariantService {
+
+    private static final List<ImageSize> VARIANTS = List.of(ImageSize.MEDIUM, ImageSize.THUMBNAIL);
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final ImageStore imageStore;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Evita gerar a mesma imagem em duas tarefas simultâneas
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+    // Originais que o ImageIO não consegue ler (ex.: WEBP); são servidos sem variantes
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    public String variantKey(String key, ImageSize size) {
+        return ImageUrls.variantKey(key, size.getWidth(), outputExtension(key));
+    }
+
+    /**
+     * Chave da variante pronta, se já tiver sido gerada.
+     */
+    public Optional<String> findVariant(String key, ImageSize size) {
+        String variantKey = variantKey(key, size);
+        return imageStore.exists(variantKey) ? Optional.of(variantKey) : Optional.empty();
+    }
+
+    /**
+     * Chave a ser publicada para o tamanho pedido: a da variante, se já gerada, ou a do original.
+     */
+    public String publishedKey(String key, ImageSize size) {
+        if (key == null || !size.isVariant() || !isSupported(key)) {
+            return key;
+        }
+        return findVariant(key, size).orElse(key);
+    }
+
+    /**
+     * Chave do original a partir de uma chave devolvida pela API, que pode ser de uma variante.
+     * Como GIF e WEBP geram variantes PNG, a extensão do original é procurada entre as candidatas.
+     */
+    public Optional<String> originalOf(String key) {
+        if (!ImageUrls.isVariantKey(key)) {
+            return imageStore.exists(key) ? Optional.of(key) : Optional.empty();
+        }
+        String hash = key.substring(0, 64);
+        List<String> extensions = key.endsWith(".jpg") ? List.of("jpg") : List.of("png", "gif", "webp");
+        return extensions.stream()
+                .map(extension -> hash + "." + extension)
+                .filter(imageStore::exists)
+                .findFirst();
+    }
+
+    public boolean isSupported(String key) {
+        return !unsupported.contains(key);
+    }
+
+    @Async("imageExecutor")
+    public void generateVariants(String key) {
+        if (unsupported.contains(key) || !inProgress.add(key)) {
+            return;
+        }
+        try {
+            if (VARIANTS.stream().allMatch(size -> findVariant(key, size).isPresent())) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            if (generate(key)) {
+                eventPublisher.publishEvent(new ImageVariantsReadyEvent(key));
+            }
+            log.debug("Variantes da imagem {} geradas em {} ms", key, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha ao gerar variantes da imagem {}: {}", key, e.getMessage());
+        } finally {
+            inProgress.remove(key);
+        }
+    }
+
+    private boolean generate(String key) throws IOException {
+        Optional<InputStream> original = imageStore.open(key);
+        if (original.isEmpty()) {
+            return false;
+        }
+
+        BufferedImage decoded;
+        int sourceWidth;
+        try (InputStream in = original.get(); ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                unsupported.add(key);
+                log.debug("Formato sem leitor no ImageIO, imagem {} será servida sem variantes", key);
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                sourceWidth = reader.getWidth(0);
+
+                // Lê no máximo ~2x a largura da maior variante; o resto da redução é feita com interpolação
+                int subsampling = Math.max(1, sourceWidth / (ImageSize.MEDIUM.getWidth() * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        String extension = outputExtension(key);
+        BufferedImage source = decoded;
+        for (ImageSize size : VARIANTS) {
+            int width = Math.min(size.getWidth(), sourceWidth);
+            source = resize(source, width, "png".equals(extension));
+            imageStore.storeVariant(variantKey(key, size), encode(source, extension));
+        }
+        return true;
+    }
+
+    /**
+     * Reduz pela metade enquanto possível e termina com uma interpolação bilinear; reduzir
+     * direto por fatores grandes com bilinear perde detalhe e gera serrilhado.
+     */
+    private static BufferedImage resize(BufferedImage image, int targetWidth, boolean alpha) {
+        BufferedImage current = image;
+        int width = current.getWidth();
+        int height = current.getHeight();
+        int targetHeight = Math.max(1, Math.round((float) height * targetWidth / width));
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth);
+
+        return current;
+    }
+
+    private static byte[] encode(BufferedImage image, String extension) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (!"jpg".equals(extension)) {
+            ImageIO.write(image, "png", bytes);
+            return bytes.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String outputExtension(String key) {
+        return key.endsWith(".jpg") ? "jpg" : "png";
+    }
+}
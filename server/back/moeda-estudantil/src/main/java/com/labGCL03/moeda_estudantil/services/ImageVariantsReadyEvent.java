@@ -0,0 +1,8 @@
+package com.labGCL03.moeda_estudantil.services;
+
+/**
+ * Publicado quando as variantes de uma imagem terminam de ser geradas, para que quem
+ * guardou a URL do original enquanto elas não existiam passe a usar a da variante.
+ */
+public record ImageVariantsReadyEvent(String key) {
+}
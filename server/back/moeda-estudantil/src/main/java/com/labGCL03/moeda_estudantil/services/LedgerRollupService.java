@@ -0,0 +1,235 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.LedgerDailyRollup;
+import com.labGCL03.moeda_estudantil.entities.Transaction;
+import com.labGCL03.moeda_estudantil.enums.RollupScope;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import com.labGCL03.moeda_estudantil.repositories.LedgerDailyRollupRepository;
+import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Totais diários do razão (tabela ledger_daily_rollups).
+ *
+ * As escritas acontecem na mesma transação que grava as linhas de transactions, então os
+ * totais nunca divergem do razão confirmado. Cada transação soma em até três linhas: o
+ * recebido do destinatário, o enviado do remetente e o total da instituição (scope_id 0
+ * para transações sem instituição). Não há linha de total geral: ela seria a mesma para
+ * todas as escritas do dia e serializaria o razão inteiro; o total geral é a soma das
+ * linhas de instituição. As linhas são atualizadas sempre na mesma ordem de chave para que
+ * escritas concorrentes não entrem em deadlock ao travar as mesmas linhas de resumo.
+ *
+ * O histórico anterior à tabela é montado uma única vez por banco, controlado pelo marcador
+ * ROLLUPS_MARKER em maintenance_markers. A montagem refaz um dia por vez, cada um em sua
+ * transação: apaga as linhas do dia e as recalcula com leituras sem lock em transactions,
+ * então o tráfego que já está sendo atendido não fica bloqueado por ela, e escritas que
+ * chegaram antes são refeitas, não perdidas.
+ */
+@Service
+@Slf4j
+public class LedgerRollupService {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO ledger_daily_rollups (scope, scope_id, day, type, amount_total, tx_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE amount_total = amount_total + VALUES(amount_total), " +
+        "tx_count = tx_count + VALUES(tx_count)";
+
+    // Todos os tipos na condição para que a leitura de um dia use o índice (type, date)
+    private static final String DAY_RANGE = "FROM transactions WHERE type IN (" +
+        Arrays.stream(TransactionType.values()).map(type -> "'" + type.name() + "'").collect(Collectors.joining(", ")) +
+        ") AND date >= ? AND date < ? ";
+
+    private static final Map<RollupScope, String> DAY_TOTALS_SQL = Map.of(
+        RollupScope.USER_IN,
+        "SELECT receiver_id, type, SUM(amount), COUNT(*) " + DAY_RANGE +
+        "AND receiver_id IS NOT NULL GROUP BY receiver_id, type",
+        RollupScope.USER_OUT,
+        "SELECT sender_id, type, SUM(amount), COUNT(*) " + DAY_RANGE +
+        "AND sender_id IS NOT NULL GROUP BY sender_id, type",
+        RollupScope.INSTITUTION,
+        "SELECT COALESCE(institution_id, 0), type, SUM(amount), COUNT(*) " + DAY_RANGE +
+        "GROUP BY COALESCE(institution_id, 0), type"
+    );
+
+    // Versão no nome: mudar o que os resumos guardam (ex.: transações sem instituição no
+    // escopo INSTITUTION) força uma nova montagem
+    static final String ROLLUPS_MARKER = "ledger_daily_rollups_v3";
+
+    private static final Long NO_INSTITUTION_ID = 0L;
+
+    private static final Comparator<LedgerDailyRollup.Key> KEY_ORDER = Comparator
+        .comparing(LedgerDailyRollup.Key::getScope)
+        .thenComparing(LedgerDailyRollup.Key::getScopeId)
+        .thenComparing(LedgerDailyRollup.Key::getDay)
+        .thenComparing(LedgerDailyRollup.Key::getType);
+
+    private final LedgerDailyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public LedgerRollupService(LedgerDailyRollupRepository rollupRepository,
+                               TransactionRepository transactionRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Soma as transações aos totais diários. Deve ser chamado dentro da transação que as grava.
+     */
+    public void record(Collection<Transaction> transactions) {
+        Map<LedgerDailyRollup.Key, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        for (Transaction transaction : transactions) {
+            LocalDate day = transaction.getDate().toLocalDate();
+            if (transaction.getReceiver() != null) {
+                add(deltas, RollupScope.USER_IN, transaction.getReceiver().getId(), day, transaction);
+            }
+            if (transaction.getSender() != null) {
+                add(deltas, RollupScope.USER_OUT, transaction.getSender().getId(), day, transaction);
+            }
+            Long institutionId = transaction.getInstitution() != null
+                ? transaction.getInstitution().getId() : NO_INSTITUTION_ID;
+            add(deltas, RollupScope.INSTITUTION, institutionId, day, transaction);
+        }
+        write(deltas);
+    }
+
+    public void record(Transaction transaction) {
+        record(List.of(transaction));
+    }
+
+    public long getTotalReceivedByUser(Long userId) {
+        return rollupRepository.sumAmountByType(RollupScope.USER_IN, userId, TransactionType.RECEIVED);
+    }
+
+    public long getTotalSentByUser(Long userId) {
+        return rollupRepository.sumAmountByType(RollupScope.USER_OUT, userId, TransactionType.SENT);
+    }
+
+    /**
+     * Quantidade de transações do tipo com data entre start e end (inclusive), com ou sem
+     * instituição. Os dias inteiros do intervalo vêm da soma dos resumos de todas as
+     * instituições; só as frações de dia nas pontas são contadas em transactions, pelo
+     * índice (type, date).
+     */
+    public long countTransactionsByTypeAndDateRange(TransactionType type, LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            return 0;
+        }
+        LocalDate firstFullDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+            ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        LocalDate lastFullDay = end.toLocalTime().equals(LocalTime.MAX)
+            ? end.toLocalDate() : end.toLocalDate().minusDays(1);
+        if (firstFullDay.isAfter(lastFullDay)) {
+            // Nenhum dia inteiro: o intervalo cobre menos de dois dias
+            return transactionRepository.countByTypeBetween(type, start, end);
+        }
+
+        long count = rollupRepository.sumCountByTypeAndDayRange(RollupScope.INSTITUTION, type, firstFullDay, lastFullDay);
+        if (start.isBefore(firstFullDay.atStartOfDay())) {
+            count += transactionRepository.countByTypeFromUntil(type, start, firstFullDay.atStartOfDay());
+        }
+        LocalDateTime afterFullDays = lastFullDay.plusDays(1).atStartOfDay();
+        if (!end.isBefore(afterFullDays)) {
+            count += transactionRepository.countByTypeBetween(type, afterFullDays, end);
+        }
+        return count;
+    }
+
+    /**
+     * Recalcula todos os totais a partir da tabela transactions, um dia por transação.
+     * Comando de reparo: enquanto roda, leitores veem os totais já refeitos dos dias
+     * processados e os antigos dos demais. Dias que passam a ter transações depois da
+     * listagem já nascem com os totais gravados pelo record.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Set<LocalDate> days = new TreeSet<>(
+            jdbcTemplate.queryForList("SELECT DISTINCT DATE(date) FROM transactions", LocalDate.class));
+        days.addAll(jdbcTemplate.queryForList("SELECT DISTINCT day FROM ledger_daily_rollups", LocalDate.class));
+        for (LocalDate day : days) {
+            newTransaction.executeWithoutResult(status -> rebuildDay(day));
+        }
+        jdbcTemplate.update("INSERT IGNORE INTO maintenance_markers (name, completed_at) VALUES (?, NOW())",
+            ROLLUPS_MARKER);
+        log.info("Totais diários do razão recalculados em {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Monta os totais a partir do histórico na primeira execução desta versão dos resumos.
+     * Decide pelo marcador persistido, não pela tabela estar vazia: escritas feitas entre o
+     * start e esta chamada já teriam criado linhas e impedido a montagem para sempre.
+     */
+    public void initializeIfNeeded() {
+        boolean built = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS(SELECT 1 FROM maintenance_markers WHERE name = ?)", Boolean.class, ROLLUPS_MARKER));
+        if (!built) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Apaga as linhas do dia e as recalcula. O DELETE trava as linhas de resumo do dia (e os
+     * intervalos entre elas) até o commit: uma escrita do dia ou já foi confirmada antes dele
+     * e aparece nas leituras, que são consistentes e não travam transactions, ou espera e
+     * soma seu delta por cima do total refeito.
+     */
+    private void rebuildDay(LocalDate day) {
+        jdbcTemplate.update("DELETE FROM ledger_daily_rollups WHERE day = ?", Date.valueOf(day));
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        Map<LedgerDailyRollup.Key, long[]> totals = new TreeMap<>(KEY_ORDER);
+        DAY_TOTALS_SQL.forEach((scope, sql) -> jdbcTemplate.query(sql, (RowCallbackHandler) rs -> totals.put(
+            new LedgerDailyRollup.Key(scope, rs.getLong(1), day, TransactionType.valueOf(rs.getString(2))),
+            new long[]{rs.getLong(3), rs.getLong(4)}), from, to));
+        write(totals);
+    }
+
+    private void write(Map<LedgerDailyRollup.Key, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> args.add(new Object[]{
+            key.getScope().name(), key.getScopeId(), Date.valueOf(key.getDay()), key.getType().name(),
+            delta[0], delta[1]
+        }));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+
+    private static void add(Map<LedgerDailyRollup.Key, long[]> deltas, RollupScope scope, Long scopeId,
+                            LocalDate day, Transaction transaction) {
+        long[] delta = deltas.computeIfAbsent(
+            new LedgerDailyRollup.Key(scope, scopeId, day, transaction.getType()), key -> new long[2]);
+        delta[0] += transaction.getAmount();
+        delta[1]++;
+    }
+}
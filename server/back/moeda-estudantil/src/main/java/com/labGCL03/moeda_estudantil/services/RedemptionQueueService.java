@@ -0,0 +1,259 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.dto.AdvantageSnapshot;
+import com.labGCL03.moeda_estudantil.dto.RedemptionStatusDTO;
+import com.labGCL03.moeda_estudantil.entities.Coupon;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.enums.RedemptionStatus;
+import com.labGCL03.moeda_estudantil.exception.ResourceNotFoundException;
+import com.labGCL03.moeda_estudantil.exception.ServiceBusyException;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resgates assíncronos: o pedido é validado e enfileirado, e o resgate em si
+ * (CouponService.redeemAdvantage) roda depois em um worker.
+ *
+ * Há workers fixos, cada um com uma fila limitada. A vantagem define o worker, então os
+ * pedidos da mesma vantagem são processados na ordem de chegada. Com a fila cheia o pedido
+ * é recusado (503) em vez de acumular. A situação de cada pedido fica em memória por
+ * retention depois de concluído; pedidos ainda na fila se perdem se a aplicação reiniciar
+ * (nada foi debitado, e a consulta passa a responder 404).
+ */
+@Service
+@Slf4j
+public class RedemptionQueueService {
+
+    private static final int RETRY_AFTER_SECONDS = 2;
+    private static final long MAX_WAIT_SECONDS = 30;
+
+    private static final class Ticket {
+        final String id = UUID.randomUUID().toString();
+        final Long studentId;
+        final Long advantageId;
+        final int lane;
+        final long sequence;
+        final LocalDateTime requestedAt = LocalDateTime.now();
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+        volatile RedemptionStatus status = RedemptionStatus.QUEUED;
+        volatile String couponCode;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Ticket(Long studentId, Long advantageId, int lane, long sequence) {
+            this.studentId = studentId;
+            this.advantageId = advantageId;
+            this.lane = lane;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Lane {
+        final ThreadPoolExecutor executor;
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicLong started = new AtomicLong();
+
+        Lane(int index, int capacity) {
+            executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+                                              runnable -> {
+                                                  Thread thread = new Thread(runnable, "Redemption-" + index);
+                                                  thread.setDaemon(true);
+                                                  return thread;
+                                              });
+        }
+    }
+
+    private final CouponService couponService;
+    private final StudentRepository studentRepository;
+    private final AdvantageCatalogService advantageCatalogService;
+    private final Lane[] lanes;
+    private final long retentionMillis;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public RedemptionQueueService(CouponService couponService,
+                                  StudentRepository studentRepository,
+                                  AdvantageCatalogService advantageCatalogService,
+                                  @Value("${app.redemption-queue.workers:4}") int workers,
+                                  @Value("${app.redemption-queue.capacity-per-worker:500}") int capacity,
+                                  @Value("${app.redemption-queue.retention:15m}") Duration retention) {
+        this.couponService = couponService;
+        this.studentRepository = studentRepository;
+        this.advantageCatalogService = advantageCatalogService;
+        this.retentionMillis = retention.toMillis();
+        this.lanes = new Lane[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new Lane(i, capacity);
+        }
+    }
+
+    /**
+     * Valida o pedido com os dados atuais e o coloca na fila.
+     *
+     * @throws IllegalArgumentException se o saldo for insuficiente ou a vantagem estiver esgotada
+     * @throws ServiceBusyException se a fila da vantagem estiver cheia
+     */
+    public RedemptionStatusDTO submit(Long studentId, Long advantageId) {
+        Student student = studentRepository.findById(studentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Aluno", studentId));
+        AdvantageSnapshot advantage = advantageCatalogService.findById(advantageId);
+
+        if (student.getCoinBalance() < advantage.costInCoins()) {
+            throw new IllegalArgumentException("Saldo insuficiente. Você possui " +
+                student.getCoinBalance() + " moedas, mas esta vantagem custa " +
+                advantage.costInCoins() + " moedas.");
+        }
+        // Na promoção relâmpago o estoque do banco não inclui o que está reservado em memória
+        if (!advantage.flashSale() && !advantage.isAvailable()) {
+            throw new IllegalArgumentException("Não há mais cupons disponíveis para esta vantagem");
+        }
+
+        int laneIndex = Math.floorMod(advantageId.hashCode(), lanes.length);
+        Lane lane = lanes[laneIndex];
+        Ticket ticket;
+        synchronized (lane) {
+            ticket = new Ticket(studentId, advantageId, laneIndex, lane.submitted.get());
+            tickets.put(ticket.id, ticket);
+            try {
+                lane.executor.execute(() -> process(lane, ticket));
+            } catch (RejectedExecutionException e) {
+                tickets.remove(ticket.id);
+                rejected.incrementAndGet();
+                throw new ServiceBusyException("Fila de resgates cheia, tente novamente em instantes", RETRY_AFTER_SECONDS);
+            }
+            lane.submitted.incrementAndGet();
+        }
+        return toDto(ticket);
+    }
+
+    public RedemptionStatusDTO getStatus(String id) {
+        return toDto(findTicket(id));
+    }
+
+    /**
+     * Long polling: responde assim que o resgate terminar ou após waitSeconds (máximo 30)
+     * com a situação do momento.
+     */
+    public DeferredResult<RedemptionStatusDTO> awaitStatus(String id, long waitSeconds) {
+        Ticket ticket = findTicket(id);
+        long wait = Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS));
+        DeferredResult<RedemptionStatusDTO> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait) + 1000);
+        result.onTimeout(() -> result.setResult(toDto(ticket)));
+        if (wait == 0 || ticket.status.isFinished()) {
+            result.setResult(toDto(ticket));
+            return result;
+        }
+        // copy(): o timeout desta espera não pode concluir o future do próprio pedido
+        ticket.finished.copy()
+            .completeOnTimeout(null, wait, TimeUnit.SECONDS)
+            .whenComplete((ignored, error) -> result.setResult(toDto(ticket)));
+        return result;
+    }
+
+    /**
+     * Tamanho das filas e contadores acumulados desde o start.
+     */
+    public Map<String, Object> stats() {
+        List<Map<String, Object>> workers = new ArrayList<>();
+        int depth = 0;
+        for (int i = 0; i < lanes.length; i++) {
+            int queued = lanes[i].executor.getQueue().size();
+            depth += queued;
+            Map<String, Object> worker = new LinkedHashMap<>();
+            worker.put("worker", i);
+            worker.put("queued", queued);
+            worker.put("busy", lanes[i].executor.getActiveCount() > 0);
+            workers.add(worker);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", depth);
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("tracked", tickets.size());
+        stats.put("workers", workers);
+        return stats;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeFinished() {
+        LocalDateTime limit = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(retentionMillis));
+        tickets.values().removeIf(ticket -> ticket.finishedAt != null && ticket.finishedAt.isBefore(limit));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Termina o que já foi aceito antes de desligar
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        for (Lane lane : lanes) {
+            if (!lane.executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Fila de resgates encerrada com {} pedidos pendentes", lane.executor.getQueue().size());
+            }
+        }
+    }
+
+    private void process(Lane lane, Ticket ticket) {
+        lane.started.incrementAndGet();
+        ticket.status = RedemptionStatus.PROCESSING;
+        try {
+            Coupon coupon = couponService.redeemAdvantage(ticket.studentId, ticket.advantageId);
+            ticket.couponCode = coupon.getCode();
+            ticket.status = RedemptionStatus.COMPLETED;
+            completed.incrementAndGet();
+        } catch (RuntimeException e) {
+            ticket.error = e.getMessage();
+            ticket.status = RedemptionStatus.FAILED;
+            failed.incrementAndGet();
+            if (!(e instanceof IllegalArgumentException || e instanceof ResourceNotFoundException)) {
+                log.error("Falha inesperada no resgate {} (aluno {}, vantagem {})",
+                          ticket.id, ticket.studentId, ticket.advantageId, e);
+            }
+        } finally {
+            ticket.finishedAt = LocalDateTime.now();
+            ticket.finished.complete(null);
+        }
+    }
+
+    private Ticket findTicket(String id) {
+        Ticket ticket = tickets.get(id);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Pedido de resgate " + id + " não encontrado");
+        }
+        return ticket;
+    }
+
+    private RedemptionStatusDTO toDto(Ticket ticket) {
+        RedemptionStatus status = ticket.status;
+        Integer position = null;
+        if (status == RedemptionStatus.QUEUED) {
+            position = (int) Math.max(1, ticket.sequence - lanes[ticket.lane].started.get() + 1);
+        }
+        return new RedemptionStatusDTO(ticket.id, status, ticket.studentId, ticket.advantageId,
+                                       ticket.couponCode, ticket.error, position,
+                                       ticket.requestedAt, ticket.finishedAt);
+    }
+}
@@ -6,6 +6,7 @@ import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +21,7 @@ public class TeacherService {
 
     private final TeacherRepository teacherRepository;
     private final TransactionService transactionService;
+    private final JdbcTemplate jdbcTemplate;
 
     public Teacher findById(Long id) {
         return teacherRepository.findById(id)
@@ -43,16 +45,25 @@ public class TeacherService {
         List<Teacher> teachersNeedingCredit = teacherRepository
             .findTeachersNeedingSemesterCredit(currentPeriod);
 
+        // Créditos enviados em um único lote JDBC; o período e as transações são
+        // gravados pelo Hibernate em lotes no flush (IDs pooled permitem o batch)
+        jdbcTemplate.batchUpdate("UPDATE teachers SET current_balance = current_balance + ? WHERE user_id = ?",
+            teachersNeedingCredit.stream()
+                .map(teacher -> new Object[]{1000, teacher.getId()})
+                .toList());
+
         for (Teacher teacher : teachersNeedingCredit) {
-            creditCoinsToTeacher(teacher, currentPeriod);
+            teacher.setLastCreditPeriod(currentPeriod);
+            transactionService.createSemesterCreditTransaction(teacher, 1000);
         }
 
         log.info("Crédito semestral concluído. {} professores creditados.", teachersNeedingCredit.size());
     }
 
     public void creditCoinsToTeacher(Teacher teacher, String period) {
-        // Adicionar 1000 moedas ao saldo atual
-        teacher.setCurrentBalance(teacher.getCurrentBalance() + 1000);
+        // Adicionar 1000 moedas ao saldo atual com incremento no banco,
+        // sem sobrescrever débitos concorrentes feitos por transferências
+        teacherRepository.creditBalance(teacher.getId(), 1000);
         teacher.setLastCreditPeriod(period);
         
         teacherRepository.save(teacher);
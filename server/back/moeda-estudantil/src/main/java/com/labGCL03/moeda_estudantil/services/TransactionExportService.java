@@ -0,0 +1,206 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
+import com.labGCL03.moeda_estudantil.dto.TransactionResponseDTO;
+import com.labGCL03.moeda_estudantil.enums.ExportFormat;
+import com.labGCL03.moeda_estudantil.exception.ResourceNotFoundException;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de extratos de transações (CSV ou NDJSON) escrita direto na resposta.
+ * Nenhum extrato é carregado por inteiro: cada linha é convertida, escrita e descartada,
+ * e o buffer é enviado ao cliente a cada CHUNK_SIZE linhas.
+ *
+ * A existência do aluno/professor/instituição é verificada antes de devolver o corpo,
+ * para que o 404 saia como resposta normal e não no meio do download.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final InstitutionRepository institutionRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody studentStatement(Long studentId, LocalDateTime startDate,
+                                                  LocalDateTime endDate, ExportFormat format) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Aluno", studentId);
+        }
+        return out -> writeUserStatement(studentId, startDate, endDate, format, out);
+    }
+
+    public StreamingResponseBody teacherStatement(Long teacherId, LocalDateTime startDate,
+                                                  LocalDateTime endDate, ExportFormat format) {
+        if (!teacherRepository.existsById(teacherId)) {
+            throw new ResourceNotFoundException("Professor", teacherId);
+        }
+        return out -> writeUserStatement(teacherId, startDate, endDate, format, out);
+    }
+
+    public StreamingResponseBody institutionStatement(Long institutionId, ExportFormat format) {
+        if (!institutionRepository.existsById(institutionId)) {
+            throw new ResourceNotFoundException("Instituição", institutionId);
+        }
+        return out -> writeInstitutionStatement(institutionId, format, out);
+    }
+
+    /*
+     * O histórico de um usuário é a intercalação de duas varreduras (recebidas e enviadas),
+     * e o MySQL não permite dois resultados em streaming abertos na mesma conexão. Por isso
+     * o extrato do usuário percorre as páginas por keyset em blocos de CHUNK_SIZE: cada bloco
+     * é uma varredura curta de índice em sua própria transação, sem segurar a conexão
+     * durante todo o download.
+     */
+    private void writeUserStatement(Long userId, LocalDateTime startDate, LocalDateTime endDate,
+                                    ExportFormat format, OutputStream out) throws IOException {
+        StatementWriter writer = new StatementWriter(format, out, objectMapper);
+        writer.writeHeader();
+
+        long rows = 0;
+        String cursor = null;
+        do {
+            CursorPageDTO<TransactionResponseDTO> page =
+                transactionService.readHistoryPage(userId, startDate, endDate, cursor, CHUNK_SIZE);
+            for (TransactionResponseDTO row : page.getItems()) {
+                writer.write(row);
+            }
+            writer.flush();
+            rows += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        log.debug("Extrato do usuário {} exportado: {} linhas ({})", userId, rows, format);
+    }
+
+    /*
+     * O extrato da instituição é uma única consulta em streaming; a transação (somente leitura)
+     * precisa ficar aberta enquanto o Stream é consumido. Como o corpo roda fora do proxy do
+     * serviço, a transação é aberta explicitamente aqui.
+     */
+    private void writeInstitutionStatement(Long institutionId, ExportFormat format, OutputStream out) throws IOException {
+        StatementWriter writer = new StatementWriter(format, out, objectMapper);
+        writer.writeHeader();
+
+        long rows = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<TransactionResponseDTO> stream = transactionRepository.streamByInstitution(institutionId)) {
+                Iterator<TransactionResponseDTO> it = stream.iterator();
+                while (it.hasNext()) {
+                    writer.write(it.next());
+                    if (++count % CHUNK_SIZE == 0) {
+                        writer.flush();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        writer.flush();
+
+        log.debug("Extrato da instituição {} exportado: {} linhas ({})", institutionId, rows, format);
+    }
+
+    /**
+     * Serializa linhas de extrato no formato pedido sobre um buffer de tamanho fixo.
+     */
+    private static final class StatementWriter {
+
+        private static final String CSV_HEADER =
+            "id,date,type,amount,sender_id,sender_name,receiver_id,receiver_name,reason\n";
+
+        private final ExportFormat format;
+        private final Writer writer;
+        private final ObjectMapper objectMapper;
+
+        StatementWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+            this.format = format;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.objectMapper = objectMapper;
+        }
+
+        void writeHeader() throws IOException {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+        }
+
+        void write(TransactionResponseDTO row) throws IOException {
+            if (format == ExportFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+                return;
+            }
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getDate()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getType()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getAmount()));
+            writer.write(',');
+            writer.write(row.getSenderId() != null ? row.getSenderId().toString() : "");
+            writer.write(',');
+            writer.write(csv(row.getSenderName()));
+            writer.write(',');
+            writer.write(row.getReceiverId() != null ? row.getReceiverId().toString() : "");
+            writer.write(',');
+            writer.write(csv(row.getReceiverName()));
+            writer.write(',');
+            writer.write(csv(row.getReason()));
+            writer.write('\n');
+        }
+
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Preenche transactions.institution_id nas transações gravadas antes de a coluna existir.
+ *
+ * A instituição vem do remetente quando ele é professor ou aluno (envios e resgates) e,
+ * caso contrário, do destinatário (créditos semestrais, em que o remetente é o sistema).
+ * O preenchimento avança por faixas de ID, cada uma em um UPDATE curto, para não segurar
+ * locks sobre a tabela inteira. É idempotente: só toca linhas ainda sem instituição, então
+ * pode ser interrompido e retomado no próximo start.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionInstitutionBackfillService {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String BACKFILL_SQL =
+        "UPDATE transactions t " +
+        "LEFT JOIN teachers ts ON ts.user_id = t.sender_id " +
+        "LEFT JOIN students ss ON ss.user_id = t.sender_id " +
+        "LEFT JOIN teachers tr ON tr.user_id = t.receiver_id " +
+        "LEFT JOIN students sr ON sr.user_id = t.receiver_id " +
+        "SET t.institution_id = COALESCE(ts.institution_id, ss.institution_id, tr.institution_id, sr.institution_id) " +
+        "WHERE t.institution_id IS NULL AND t.id > ? AND t.id <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerRollupService ledgerRollupService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+        // Os totais por instituição dependem da coluna preenchida
+        ledgerRollupService.initializeIfNeeded();
+    }
+
+    /**
+     * @return quantidade de transações atualizadas
+     */
+    public int backfill() {
+        Long minId = jdbcTemplate.queryForObject(
+            "SELECT MIN(id) FROM transactions WHERE institution_id IS NULL", Long.class);
+        if (minId == null) {
+            return 0;
+        }
+        Long maxId = jdbcTemplate.queryForObject(
+            "SELECT MAX(id) FROM transactions WHERE institution_id IS NULL", Long.class);
+
+        log.info("Preenchendo institution_id das transações entre os IDs {} e {}", minId, maxId);
+        int updated = 0;
+        for (long from = minId - 1; from < maxId; from += BATCH_SIZE) {
+            updated += jdbcTemplate.update(BACKFILL_SQL, from, Math.min(from + BATCH_SIZE, maxId));
+        }
+        log.info("institution_id preenchido em {} transações", updated);
+        return updated;
+    }
+}
@@ -1,18 +1,32 @@
 package com.labGCL03.moeda_estudantil.services;
 
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
+import com.labGCL03.moeda_estudantil.dto.TransactionResponseDTO;
+import com.labGCL03.moeda_estudantil.dto.TransferCoinsDTO;
 import com.labGCL03.moeda_estudantil.entities.Student;
 import com.labGCL03.moeda_estudantil.entities.Teacher;
 import com.labGCL03.moeda_estudantil.entities.Transaction;
 import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
 import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
 import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
 import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import com.labGCL03.moeda_estudantil.util.CursorCodec;
+import com.labGCL03.moeda_estudantil.util.SortedMerge;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +37,18 @@ public class TransactionService {
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final EmailService emailService;
+    private final LedgerRollupService ledgerRollupService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Limites usados quando o filtro de data não é informado
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Comparator<TransactionResponseDTO> NEWEST_FIRST =
+        Comparator.comparing(TransactionResponseDTO::getDate).thenComparing(TransactionResponseDTO::getId).reversed();
 
     public Transaction sendCoins(Long teacherId, Long studentId, Integer amount, String reason) {
         // Validar parâmetros
@@ -33,19 +59,25 @@ public class TransactionService {
             throw new IllegalArgumentException("Motivo é obrigatório");
         }
 
-        // Buscar professor e aluno
+        // Buscar professor e aluno (leituras simples, sem bloquear linhas)
         Teacher teacher = teacherRepository.findById(teacherId)
             .orElseThrow(() -> new RuntimeException("Professor não encontrado"));
         
         Student student = studentRepository.findById(studentId)
             .orElseThrow(() -> new RuntimeException("Aluno não encontrado"));
 
-        // Verificar saldo do professor
-        if (teacher.getCurrentBalance() < amount) {
+        // Debitar o professor com UPDATE condicional: a verificação de saldo e o débito
+        // acontecem no mesmo comando, evitando a corrida de ler-modificar-gravar
+        if (teacherRepository.debitBalance(teacherId, amount) == 0) {
             throw new IllegalArgumentException("Saldo insuficiente do professor");
         }
 
-        // Criar transação
+        // Creditar o aluno com incremento direto no banco
+        if (studentRepository.creditBalance(studentId, amount) == 0) {
+            throw new RuntimeException("Aluno não encontrado");
+        }
+
+        // Registrar a transação
         Transaction transaction = new Transaction();
         transaction.setSender(teacher);
         transaction.setReceiver(student);
@@ -53,15 +85,10 @@ public class TransactionService {
         transaction.setReason(reason);
         transaction.setType(TransactionType.SENT);
         transaction.setDate(LocalDateTime.now());
+        transaction.setInstitution(teacher.getInstitution());
 
-        // Atualizar saldos
-        teacher.setCurrentBalance(teacher.getCurrentBalance() - amount);
-        student.setCoinBalance(student.getCoinBalance() + amount);
-
-        // Salvar no banco
-        teacherRepository.save(teacher);
-        studentRepository.save(student);
         Transaction savedTransaction = transactionRepository.save(transaction);
+        ledgerRollupService.record(savedTransaction);
 
         // Enviar notificação por email (assíncrono)
         emailService.notifyStudentCoinReceived(student, amount, reason, teacher);
@@ -69,28 +96,159 @@ public class TransactionService {
         return savedTransaction;
     }
 
+    /**
+     * Transfere moedas de um professor para vários alunos em uma única transação.
+     * O professor é debitado uma vez pelo total, os créditos e os registros de
+     * transação são enviados em lotes JDBC e as notificações seguem em um único job.
+     * Qualquer falha desfaz a operação inteira.
+     */
+    public int sendCoinsBulk(Long teacherId, List<TransferCoinsDTO> transfers) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma transferência");
+        }
+
+        long total = 0;
+        // Ordenado por ID: os créditos travam as linhas dos alunos sempre na mesma ordem, então
+        // duas premiações concorrentes para os mesmos alunos não entram em deadlock
+        Map<Long, Integer> creditsByStudent = new TreeMap<>();
+        for (TransferCoinsDTO transfer : transfers) {
+            if (transfer.getAmount() == null || transfer.getAmount() <= 0) {
+                throw new IllegalArgumentException("Valor deve ser positivo");
+            }
+            if (transfer.getReason() == null || transfer.getReason().trim().isEmpty()) {
+                throw new IllegalArgumentException("Motivo é obrigatório");
+            }
+            total += transfer.getAmount();
+            creditsByStudent.merge(transfer.getStudentId(), transfer.getAmount(), Integer::sum);
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Valor total da transferência excede o limite permitido");
+        }
+
+        Teacher teacher = teacherRepository.findById(teacherId)
+            .orElseThrow(() -> new RuntimeException("Professor não encontrado"));
+
+        // Uma única consulta para validar todos os alunos e obter dados para os emails
+        Map<Long, Student> students = studentRepository.findAllById(creditsByStudent.keySet()).stream()
+            .collect(Collectors.toMap(Student::getId, Function.identity()));
+        if (students.size() != creditsByStudent.size()) {
+            throw new RuntimeException("Aluno não encontrado");
+        }
+
+        // Débito único e condicional pelo total
+        if (teacherRepository.debitBalance(teacherId, (int) total) == 0) {
+            throw new IllegalArgumentException("Saldo insuficiente do professor");
+        }
+
+        List<Object[]> credits = creditsByStudent.entrySet().stream()
+            .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+            .toList();
+        jdbcTemplate.batchUpdate("UPDATE students SET coin_balance = coin_balance + ? WHERE user_id = ?", credits);
+
+        // Com IDs pooled, os INSERTs são agrupados pelo Hibernate em lotes JDBC no flush
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> rows = transfers.stream()
+            .map(transfer -> {
+                Transaction transaction = new Transaction();
+                transaction.setSender(teacher);
+                transaction.setReceiver(students.get(transfer.getStudentId()));
+                transaction.setAmount(transfer.getAmount());
+                transaction.setReason(transfer.getReason());
+                transaction.setType(TransactionType.SENT);
+                transaction.setDate(now);
+                transaction.setInstitution(teacher.getInstitution());
+                return transaction;
+            })
+            .toList();
+        transactionRepository.saveAll(rows);
+        ledgerRollupService.record(rows);
+
+        // Enfileirar todas as notificações em um único job assíncrono
+        List<EmailService.CoinNotification> notifications = transfers.stream()
+            .map(transfer -> new EmailService.CoinNotification(
+                students.get(transfer.getStudentId()), transfer.getAmount(), transfer.getReason()))
+            .toList();
+        emailService.notifyStudentsCoinReceived(notifications, teacher);
+
+        return transfers.size();
+    }
+
     public List<Transaction> getStudentTransactionHistory(Long studentId) {
         return transactionRepository.findByReceiverIdOrderByDateDesc(studentId);
     }
 
-    public List<Transaction> getStudentTransactionHistory(Long studentId, LocalDateTime startDate, LocalDateTime endDate) {
-        return transactionRepository.findTransactionsByUserIdAndDateRange(studentId, startDate, endDate);
+    public List<TransactionResponseDTO> getStudentTransactionHistory(Long studentId, LocalDateTime startDate, LocalDateTime endDate) {
+        return getUserTransactionHistory(studentId, startDate, endDate);
     }
 
     public List<Transaction> getTeacherTransactionHistory(Long teacherId) {
         return transactionRepository.findBySenderIdOrderByDateDesc(teacherId);
     }
 
-    public List<Transaction> getTeacherTransactionHistory(Long teacherId, LocalDateTime startDate, LocalDateTime endDate) {
-        return transactionRepository.findTransactionsByUserIdAndDateRange(teacherId, startDate, endDate);
+    public List<TransactionResponseDTO> getTeacherTransactionHistory(Long teacherId, LocalDateTime startDate, LocalDateTime endDate) {
+        return getUserTransactionHistory(teacherId, startDate, endDate);
+    }
+
+    public List<TransactionResponseDTO> getUserTransactionHistory(Long userId) {
+        return getUserTransactionHistory(userId, MIN_DATE, MAX_DATE);
+    }
+
+    public List<TransactionResponseDTO> getUserTransactionHistory(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+        // Duas varreduras ordenadas por índice (recebidas e enviadas), já projetadas em DTO,
+        // intercaladas em memória: número fixo de consultas, independente da quantidade de linhas
+        List<TransactionResponseDTO> received = transactionRepository.findReceivedHistory(userId, startDate, endDate);
+        List<TransactionResponseDTO> sent = transactionRepository.findSentHistory(userId, startDate, endDate);
+        return SortedMerge.merge(received, sent, NEWEST_FIRST, Integer.MAX_VALUE);
     }
 
-    public List<Transaction> getUserTransactionHistory(Long userId) {
-        return transactionRepository.findAllTransactionsByUserId(userId);
+    /**
+     * Histórico paginado por cursor (keyset em date, id). Cada página custa uma
+     * varredura de intervalo no índice, independentemente do tamanho do histórico.
+     */
+    public CursorPageDTO<TransactionResponseDTO> getUserTransactionPage(Long userId, LocalDateTime startDate,
+                                                                       LocalDateTime endDate, String cursor,
+                                                                       Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return readHistoryPage(userId, startDate, endDate, cursor, pageSize);
     }
 
-    public List<Transaction> getUserTransactionHistory(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return transactionRepository.findTransactionsByUserIdAndDateRange(userId, startDate, endDate);
+    /**
+     * Mesma leitura de getUserTransactionPage, sem o teto de MAX_PAGE_SIZE. Uso interno
+     * (exportação de extratos), que percorre o histórico inteiro em blocos maiores.
+     */
+    public CursorPageDTO<TransactionResponseDTO> readHistoryPage(Long userId, LocalDateTime startDate,
+                                                                 LocalDateTime endDate, String cursor,
+                                                                 int pageSize) {
+        LocalDateTime cursorDate = endDate != null ? endDate : MAX_DATE;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                cursorDate = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BusinessException("Cursor de paginação inválido");
+            }
+        }
+
+        // Cada lado traz no máximo pageSize + 1 linhas (uma a mais indica que há próxima página);
+        // a intercalação para assim que a página está completa
+        LocalDateTime lowerBound = startDate != null ? startDate : MIN_DATE;
+        Limit fetch = Limit.of(pageSize + 1);
+        List<TransactionResponseDTO> rows = SortedMerge.merge(
+            transactionRepository.findReceivedPage(userId, lowerBound, cursorDate, cursorId, fetch),
+            transactionRepository.findSentPage(userId, lowerBound, cursorDate, cursorId, fetch),
+            NEWEST_FIRST, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionResponseDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionResponseDTO last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(last.getDate().toString(), last.getId().toString());
+        }
+        return new CursorPageDTO<>(items, nextCursor);
     }
 
     public Transaction createSemesterCreditTransaction(Teacher teacher, Integer amount) {
@@ -101,8 +259,11 @@ public class TransactionService {
         transaction.setReason("Crédito semestral de moedas");
         transaction.setType(TransactionType.RECEIVED);
         transaction.setDate(LocalDateTime.now());
+        transaction.setInstitution(teacher.getInstitution());
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        ledgerRollupService.record(saved);
+        return saved;
     }
 
     public Transaction createRedemptionTransaction(Student student, Integer amount, String advantageName) {
@@ -113,7 +274,10 @@ public class TransactionService {
         transaction.setReason("Resgate de vantagem: " + advantageName);
         transaction.setType(TransactionType.REDEEMED);
         transaction.setDate(LocalDateTime.now());
+        transaction.setInstitution(student.getInstitution());
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        ledgerRollupService.record(saved);
+        return saved;
     }
 }
\ No newline at end of file
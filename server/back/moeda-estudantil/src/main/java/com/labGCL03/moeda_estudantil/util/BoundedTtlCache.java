@@ -0,0 +1,172 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache em memória com limite de entradas (descarta a menos usada recentemente) e tempo de
+ * vida por entrada, com contadores de acertos, faltas e descartes.
+ *
+ * getOrLoad carrega fora do lock. Para que um carregamento iniciado antes de uma
+ * invalidação não grave um valor já obsoleto, cada chave em carga tem uma versão, avançada
+ * quando a chave é invalidada, e o resultado só é guardado se ela não mudou durante a carga.
+ * Invalidar uma chave não descarta as cargas das outras. invalidateIf e clear decidem pelo
+ * valor ou atingem tudo, então descartam todas as cargas em andamento.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    public record Stats(long hits, long misses, long evictions, long expirations, long invalidations, int size) {
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    /** Cargas em andamento de uma chave. */
+    private static final class Loading {
+        int loaders;
+        long version;
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Loading> loading = new HashMap<>();
+
+    private long epoch;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public BoundedTtlCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    BoundedTtlCache(int maxEntries, Duration ttl, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries deve ser positivo");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    public V getOrLoad(K key, Function<K, V> loader) {
+        Loading pending;
+        long loadVersion;
+        long loadEpoch;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > clock.millis()) {
+                    hits++;
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            pending = loading.computeIfAbsent(key, k -> new Loading());
+            pending.loaders++;
+            loadVersion = pending.version;
+            loadEpoch = epoch;
+        }
+
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            synchronized (this) {
+                if (--pending.loaders == 0) {
+                    loading.remove(key);
+                }
+                if (value != null && pending.version == loadVersion && epoch == loadEpoch) {
+                    entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+                    evictOverflow();
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Valor guardado e ainda válido, sem carregar nem contar como acerto ou falta.
+     */
+    public synchronized V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && entry.expiresAt() > clock.millis() ? entry.value() : null;
+    }
+
+    public synchronized void invalidate(K key) {
+        Loading pending = loading.get(key);
+        if (pending != null) {
+            pending.version++;
+        }
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Invalida as chaves que atendem ao predicado, inclusive as que estão em carga, sem
+     * descartar as cargas das demais.
+     */
+    public synchronized void invalidateKeys(Predicate<K> predicate) {
+        loading.forEach((key, pending) -> {
+            if (predicate.test(key)) {
+                pending.version++;
+            }
+        });
+        Iterator<K> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next())) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * O valor de uma carga em andamento ainda não existe para ser testado: todas elas são
+     * descartadas. Para decidir só pela chave, use invalidateKeys.
+     */
+    public synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+        epoch++;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = it.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        epoch++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, expirations, invalidations, entries.size());
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> oldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+            evictions++;
+        }
+    }
+}
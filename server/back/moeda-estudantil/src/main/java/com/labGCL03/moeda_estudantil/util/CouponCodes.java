@@ -0,0 +1,150 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Formato dos códigos de cupom: 9 caracteres de dados em base32 de Crockford (45 bits)
+ * seguidos de um caractere de verificação Luhn mod 32, exibidos como XXXXX-XXXXX.
+ *
+ * O alfabeto não tem I, L, O nem U, o que evita confusão na digitação. O dígito
+ * verificador detecta qualquer caractere trocado e a maioria das transposições de vizinhos.
+ *
+ * Os dados vêm de scramble(sequência): uma permutação (rede de Feistel com chave) sobre
+ * os 45 bits. Sequências distintas sempre geram códigos distintos, sem consulta ao banco,
+ * e códigos consecutivos não são previsíveis sem a chave.
+ */
+public final class CouponCodes {
+
+    // Códigos emitidos antes do formato atual: 8 hexadecimais vindos de um UUID
+    private static final Pattern LEGACY = Pattern.compile("[0-9A-F]{4}-[0-9A-F]{4}");
+
+    public static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    public static final int DATA_LENGTH = 9;
+    public static final int DATA_BITS = DATA_LENGTH * 5;
+    public static final long MAX_SEQUENCE = (1L << DATA_BITS) - 1;
+
+    // Feistel balanceado em 46 bits; valores fora dos 45 bits são recifrados (cycle walking)
+    private static final int HALF_BITS = 23;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private CouponCodes() {
+    }
+
+    /**
+     * Permutação de [0, 2^45) determinada pela chave.
+     */
+    public static long scramble(long sequence, long key) {
+        if (sequence < 0 || sequence > MAX_SEQUENCE) {
+            throw new IllegalArgumentException("Sequência fora do intervalo de códigos: " + sequence);
+        }
+        long value = sequence;
+        do {
+            value = feistel(value, key);
+        } while (value > MAX_SEQUENCE);
+        return value;
+    }
+
+    /**
+     * Código formatado (XXXXX-XXXXX) para o valor de 45 bits.
+     */
+    public static String format(long value) {
+        char[] data = new char[DATA_LENGTH];
+        for (int i = DATA_LENGTH - 1; i >= 0; i--) {
+            data[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        char check = checkCharacter(data);
+        return new String(data, 0, 5) + "-" + new String(data, 5, 4) + check;
+    }
+
+    /**
+     * Forma canônica do código digitado, ou null se não puder ser um código emitido.
+     *
+     * Aceita minúsculas, espaços e hífens fora do lugar, e troca O por 0 e I/L por 1 como
+     * manda o base32 de Crockford. A conferência é feita só em memória, então serve para
+     * recusar erros de digitação antes de consultar o banco.
+     */
+    public static String normalize(String input) {
+        if (input == null) {
+            return null;
+        }
+        String trimmed = input.trim().toUpperCase(Locale.ROOT);
+        if (LEGACY.matcher(trimmed).matches()) {
+            return trimmed;
+        }
+        if (trimmed.length() > 2 * (DATA_LENGTH + 1)) {
+            return null;
+        }
+
+        char[] chars = new char[DATA_LENGTH + 1];
+        int length = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (c == 'O') {
+                c = '0';
+            } else if (c == 'I' || c == 'L') {
+                c = '1';
+            }
+            if (length == chars.length || ALPHABET.indexOf(c) < 0) {
+                return null;
+            }
+            chars[length++] = c;
+        }
+        if (length != chars.length) {
+            return null;
+        }
+
+        char[] data = Arrays.copyOf(chars, DATA_LENGTH);
+        if (checkCharacter(data) != chars[DATA_LENGTH]) {
+            return null;
+        }
+        return new String(chars, 0, 5) + "-" + new String(chars, 5, 5);
+    }
+
+    public static boolean isWellFormed(String input) {
+        return normalize(input) != null;
+    }
+
+    /**
+     * Caractere de verificação Luhn mod 32 para os caracteres de dados.
+     */
+    static char checkCharacter(char[] data) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = data.length - 1; i >= 0; i--) {
+            int addend = ALPHABET.indexOf(data[i]);
+            if (doubled) {
+                addend *= 2;
+                addend = addend / 32 + addend % 32;
+            }
+            sum += addend;
+            doubled = !doubled;
+        }
+        return ALPHABET.charAt((32 - sum % 32) % 32);
+    }
+
+    private static long feistel(long value, long key) {
+        long left = (value >>> HALF_BITS) & HALF_MASK;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right ^ key ^ (round * 0x9E3779B97F4A7C15L)) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    // Finalizador do SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,40 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica a posição de uma página (ex.: data + ID do último item) em um
+ * cursor opaco para paginação por keyset. O cliente apenas devolve o valor
+ * recebido em nextCursor, sem depender do formato interno.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BusinessException se o cursor estiver malformado ou tiver quantidade de partes inesperada
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new BusinessException("Cursor de paginação inválido");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import java.util.Base64;
+
+/**
+ * Leitura de data URLs em Base64 ("data:image/png;base64,...."), formato em que as
+ * fotos das vantagens eram enviadas e gravadas antes do ImageStore.
+ */
+public final class DataUrls {
+
+    public record Decoded(String contentType, byte[] content) {
+    }
+
+    private DataUrls() {
+    }
+
+    public static boolean isDataUrl(String value) {
+        return value != null && value.startsWith("data:");
+    }
+
+    /**
+     * @throws IllegalArgumentException se o valor não for uma data URL Base64 válida
+     */
+    public static Decoded decode(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        if (!isDataUrl(dataUrl) || comma < 0) {
+            throw new IllegalArgumentException("Data URL inválida");
+        }
+        String header = dataUrl.substring(5, comma);
+        if (!header.endsWith(";base64")) {
+            throw new IllegalArgumentException("Data URL sem codificação Base64");
+        }
+        String contentType = header.substring(0, header.length() - ";base64".length());
+        byte[] content = Base64.getMimeDecoder().decode(dataUrl.substring(comma + 1));
+        return new Decoded(contentType, content);
+    }
+}
@@ -0,0 +1,53 @@
+package com.labGCL03.moeda_estudantil.util;
+
+/**
+ * Identifica o formato de uma imagem pelos primeiros bytes (assinatura do arquivo),
+ * sem confiar no Content-Type ou na extensão informados pelo cliente.
+ */
+public final class ImageFormats {
+
+    /** Bytes necessários para reconhecer todos os formatos aceitos. */
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private ImageFormats() {
+    }
+
+    /**
+     * @return a extensão (jpg, png, gif ou webp) ou null se a assinatura não for reconhecida
+     */
+    public static String detectExtension(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == 0x0D && header[5] == 0x0A && header[6] == 0x1A && header[7] == 0x0A) {
+            return "png";
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8'
+                && (header[4] == '7' || header[4] == '9') && header[5] == 'a') {
+            return "gif";
+        }
+        if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+
+    public static String contentType(String extension) {
+        return switch (extension) {
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
+
+    /**
+     * Tipo MIME de uma chave do ImageStore (SHA-256 + extensão).
+     */
+    public static String contentTypeForKey(String key) {
+        return contentType(key.substring(key.lastIndexOf('.') + 1));
+    }
+}
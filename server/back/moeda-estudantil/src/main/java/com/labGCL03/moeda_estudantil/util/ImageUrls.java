@@ -0,0 +1,86 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import com.labGCL03.moeda_estudantil.enums.ImageSize;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Layout das imagens do ImageStore sob o diretório de uploads e as URLs públicas
+ * correspondentes (servidas pelo handler /uploads/** do FileUploadConfig).
+ *
+ * A chave é o SHA-256 do conteúdo seguido da extensão; os dois primeiros pares de
+ * caracteres viram subdiretórios para não concentrar milhares de arquivos em um só.
+ */
+public final class ImageUrls {
+
+    public static final String URL_PREFIX = "/uploads/";
+
+    public static final String API_PREFIX = "/api/images/";
+
+    // Originais: <sha256>.<ext>; variantes: <sha256>_w<largura>.<ext>
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}(_w[0-9]{2,4})?\\.(jpg|png|gif|webp)");
+    private static final Pattern KEY_IN_URL = Pattern.compile(
+        "(?:/uploads/images/[0-9a-f]{2}/[0-9a-f]{2}/|/api/images/)(" + KEY.pattern() + ")(?:\\?.*)?$");
+
+    private ImageUrls() {
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+
+    /**
+     * Caminho relativo ao diretório de uploads, ex.: images/3f/a2/3fa2...e1.png
+     */
+    public static String relativePath(String key) {
+        return "images/" + key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key;
+    }
+
+    /**
+     * Origem pública da aplicação (app.public-base-url), definida pelo FileUploadConfig.
+     * Não vem do Host da requisição, que é controlado pelo cliente.
+     */
+    private static volatile String baseUrl = "";
+
+    public static void setBaseUrl(String url) {
+        baseUrl = url == null ? "" : url.replaceAll("/+$", "");
+    }
+
+    /**
+     * URL absoluta na origem configurada (o front roda em outra origem); sem origem
+     * configurada, apenas o caminho.
+     */
+    public static String publicUrl(String key) {
+        if (key == null) {
+            return null;
+        }
+        return baseUrl + URL_PREFIX + relativePath(key);
+    }
+
+    /**
+     * Chave da variante de largura fixa de um original.
+     */
+    public static String variantKey(String key, int width, String extension) {
+        return key.substring(0, 64) + "_w" + width + "." + extension;
+    }
+
+    public static boolean isVariantKey(String key) {
+        return key.length() > 64 && key.charAt(64) == '_';
+    }
+
+    /**
+     * Extrai a chave (original ou variante) de uma URL de /uploads ou de /api/images; null se
+     * a URL não for do ImageStore.
+     */
+    public static String keyFromUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher matcher = KEY_IN_URL.matcher(url);
+        if (!matcher.find()) {
+            return null;
+        }
+        return matcher.group(1);
+    }
+}
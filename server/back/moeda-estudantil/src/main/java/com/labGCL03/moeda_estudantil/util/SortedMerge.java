@@ -0,0 +1,44 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Intercalação de duas listas já ordenadas pelo mesmo critério.
+ * Usada para combinar varreduras ordenadas de índices diferentes sem
+ * reordenar o resultado completo no banco.
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {
+    }
+
+    /**
+     * Intercala {@code left} e {@code right} (ambas ordenadas por {@code order}) e para
+     * assim que {@code limit} itens forem produzidos. Itens iguais nas duas listas
+     * aparecem uma única vez.
+     */
+    public static <T> List<T> merge(List<T> left, List<T> right, Comparator<? super T> order, int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, left.size() + right.size()));
+        int i = 0;
+        int j = 0;
+        while (result.size() < limit && (i < left.size() || j < right.size())) {
+            T next;
+            if (j >= right.size()) {
+                next = left.get(i++);
+            } else if (i >= left.size()) {
+                next = right.get(j++);
+            } else {
+                int cmp = order.compare(left.get(i), right.get(j));
+                if (cmp == 0 && left.get(i).equals(right.get(j))) {
+                    j++; // mesmo registro nas duas varreduras
+                    continue;
+                }
+                next = cmp <= 0 ? left.get(i++) : right.get(j++);
+            }
+            result.add(next);
+        }
+        return result;
+    }
+}
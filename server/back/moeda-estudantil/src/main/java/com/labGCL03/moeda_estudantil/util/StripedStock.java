@@ -0,0 +1,94 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estoque em memória dividido em faixas (stripes), cada uma um contador atômico próprio.
+ *
+ * Cada thread começa por uma faixa sorteada e só passa às outras quando ela está vazia,
+ * então resgates simultâneos disputam contadores diferentes em vez de um só. Reservar e
+ * devolver são operações CAS, sem lock. Os contadores ficam espaçados no array para não
+ * dividirem a mesma linha de cache.
+ */
+public final class StripedStock {
+
+    // 16 ints = 64 bytes entre contadores vizinhos
+    private static final int PADDING = 16;
+
+    private final int stripes;
+    private final AtomicIntegerArray cells;
+
+    public StripedStock(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes deve ser positivo");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+    }
+
+    /**
+     * Distribui as unidades igualmente entre as faixas.
+     */
+    public void add(int units) {
+        if (units <= 0) {
+            return;
+        }
+        int share = units / stripes;
+        int rest = units % stripes;
+        for (int i = 0; i < stripes; i++) {
+            int amount = share + (i < rest ? 1 : 0);
+            if (amount > 0) {
+                cells.getAndAdd(i * PADDING, amount);
+            }
+        }
+    }
+
+    /**
+     * @return true se uma unidade foi reservada; false se todas as faixas estão vazias
+     */
+    public boolean tryAcquire() {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            int current = cells.get(index);
+            while (current > 0) {
+                if (cells.compareAndSet(index, current, current - 1)) {
+                    return true;
+                }
+                current = cells.get(index);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Devolve uma unidade reservada.
+     */
+    public void release() {
+        cells.getAndIncrement(ThreadLocalRandom.current().nextInt(stripes) * PADDING);
+    }
+
+    /**
+     * Zera todas as faixas e retorna quantas unidades havia. Cada unidade termina ou
+     * reservada por tryAcquire ou contada aqui, nunca nos dois.
+     */
+    public int drain() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Soma aproximada sob concorrência (as faixas são lidas uma a uma).
+     */
+    public int available() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,422 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de busca textual em memória por trigramas, com documentos de vários campos
+ * ponderados (ex.: nome, empresa, descrição).
+ *
+ * O texto é normalizado (minúsculas, sem acentos, só letras e dígitos), cada palavra é
+ * quebrada em trigramas com dois espaços antes e um depois, e cada trigrama aponta para
+ * a lista dos documentos que o contêm. Na consulta a última palavra não recebe o espaço
+ * final, o que faz "desc" encontrar "desconto". Um documento é candidato quando contém uma
+ * fração mínima dos trigramas da consulta (tolera erros de digitação) e o ranking soma essa
+ * cobertura a bônus por campo em que a consulta aparece inteira ou como prefixo.
+ *
+ * Documentos internos têm números sequenciais e as listas são apenas acrescidas; remoções e
+ * atualizações marcam o número antigo como morto e as listas são compactadas quando os
+ * mortos passam de um quarto do total. Leituras concorrentes são permitidas; escritas são
+ * exclusivas.
+ *
+ * Cada busca conta trigramas em um vetor denso (documentos x campos) emprestado de um pool
+ * limitado ao número de processadores; buscas além disso alocam um vetor que é descartado
+ * no fim, então a memória retida não cresce com o pool de threads do servidor.
+ */
+public final class TrigramIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final double MIN_COVERAGE = 0.6;
+    private static final int ALPHABET = 37;
+    // Cada entrada das listas guarda o número do documento e, nos bits baixos, em quais
+    // campos o trigrama aparece
+    private static final int MAX_FIELDS = 3;
+    private static final int FIELD_BITS = 3;
+
+    private final double[] fieldWeights;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private long[] ids = new long[256];
+    private String[][] texts = new String[256][];
+    private boolean[] alive = new boolean[256];
+    private int docCount;
+    private int liveCount;
+
+    private final BlockingQueue<int[]> scratch =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * @param fieldWeights peso de cada campo no ranking, na mesma ordem usada em put
+     */
+    public TrigramIndex(double... fieldWeights) {
+        if (fieldWeights.length == 0 || fieldWeights.length > MAX_FIELDS) {
+            throw new IllegalArgumentException("Entre 1 e " + MAX_FIELDS + " campos");
+        }
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    /**
+     * Indexa (ou reindexa) um documento. Campos nulos são tratados como vazios.
+     */
+    public void put(long id, String... fields) {
+        if (fields.length != fieldWeights.length) {
+            throw new IllegalArgumentException("Esperados " + fieldWeights.length + " campos");
+        }
+        String[] folded = new String[fields.length];
+        Map<Integer, Integer> fieldMasks = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            folded[i] = fold(fields[i]);
+            int bit = 1 << i;
+            for (int gram : trigrams(folded[i], false)) {
+                fieldMasks.merge(gram, bit, (a, b) -> a | b);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int doc = docCount++;
+            ensureCapacity(doc + 1);
+            ids[doc] = id;
+            texts[doc] = folded;
+            alive[doc] = true;
+            docById.put(id, doc);
+            liveCount++;
+            fieldMasks.forEach((gram, mask) ->
+                postings.computeIfAbsent(gram, g -> new IntList()).add(doc << FIELD_BITS | mask));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Substitui todo o conteúdo do índice.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docById.clear();
+            ids = new long[256];
+            texts = new String[256][];
+            alive = new boolean[256];
+            docCount = 0;
+            liveCount = 0;
+            scratch.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return IDs dos documentos mais relevantes, do melhor para o pior
+     */
+    public List<Long> search(String query, int limit) {
+        String folded = fold(query);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        boolean prefix = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        int[] grams = trigrams(folded, prefix);
+        int required = Math.max(1, (int) Math.ceil(grams.length * MIN_COVERAGE));
+
+        int stride = fieldWeights.length + 1;
+        lock.readLock().lock();
+        try {
+            // counts[doc * stride] = trigramas da consulta no documento;
+            // counts[doc * stride + 1 + f] = trigramas da consulta no campo f
+            int[] counts = scratch.poll();
+            if (counts == null || counts.length < docCount * stride) {
+                // Folga para não realocar a cada documento novo
+                counts = new int[docCount * stride + docCount * stride / 4];
+            }
+
+            // Um candidato precisa de ao menos `required` trigramas, então obrigatoriamente aparece
+            // em uma das (q - required + 1) listas mais curtas. Só elas criam candidatos; as
+            // listas mais longas apenas completam a contagem de quem já é candidato
+            IntList[] lists = new IntList[grams.length];
+            int present = 0;
+            for (int gram : grams) {
+                IntList entries = postings.get(gram);
+                if (entries != null) {
+                    lists[present++] = entries;
+                }
+            }
+            Arrays.sort(lists, 0, present, Comparator.comparingInt(list -> list.size));
+            int seeds = Math.min(present, grams.length - required + 1);
+
+            IntList touched = new IntList();
+            for (int l = 0; l < present; l++) {
+                IntList entries = lists[l];
+                boolean seed = l < seeds;
+                if (!seed && entries.size > touched.size * 16) {
+                    // Lista muito maior que o conjunto de candidatos: busca binária por candidato
+                    for (int i = 0; i < touched.size; i++) {
+                        int at = find(entries, touched.values[i]);
+                        if (at >= 0) {
+                            count(counts, entries.values[at], stride);
+                        }
+                    }
+                    continue;
+                }
+                for (int i = 0; i < entries.size; i++) {
+                    int entry = entries.values[i];
+                    int base = (entry >>> FIELD_BITS) * stride;
+                    if (counts[base] == 0) {
+                        if (!seed) {
+                            continue;
+                        }
+                        touched.add(entry >>> FIELD_BITS);
+                    }
+                    count(counts, entry, stride);
+                }
+            }
+
+            // Seleção dos melhores sem olhar o texto: cobertura da consulta mais o peso de cada
+            // campo que contém todos os trigramas dela
+            PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+            for (int i = 0; i < touched.size; i++) {
+                int doc = touched.values[i];
+                int base = doc * stride;
+                int count = counts[base];
+                double score = (double) count / grams.length;
+                for (int f = 0; f < fieldWeights.length; f++) {
+                    if (counts[base + 1 + f] == grams.length) {
+                        score += fieldWeights[f];
+                    }
+                    counts[base + 1 + f] = 0;
+                }
+                counts[base] = 0;
+                if (count < required || !alive[doc]) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(new Scored(doc, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Scored(doc, score));
+                }
+            }
+
+            // Ordem final pelo texto normalizado, só para os documentos selecionados
+            List<Scored> selected = new ArrayList<>(top.size());
+            for (Scored candidate : top) {
+                selected.add(new Scored(candidate.doc(), exactScore(candidate.doc(), folded, candidate.score())));
+            }
+            selected.sort(Comparator.comparingDouble(Scored::score).reversed());
+
+            List<Long> result = new ArrayList<>(selected.size());
+            for (Scored candidate : selected) {
+                result.add(ids[candidate.doc()]);
+            }
+            // Todas as posições tocadas já foram zeradas; se o pool estiver cheio o vetor é descartado
+            scratch.offer(counts);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza para busca: minúsculas, sem acentos (ç vira c, ã vira a) e apenas letras e
+     * dígitos separados por um espaço.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String lower = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(lower).replaceAll(" ").trim();
+    }
+
+    private static void count(int[] counts, int entry, int stride) {
+        int base = (entry >>> FIELD_BITS) * stride;
+        counts[base]++;
+        for (int mask = entry & ((1 << FIELD_BITS) - 1), f = 0; mask != 0; mask >>>= 1, f++) {
+            if ((mask & 1) != 0) {
+                counts[base + 1 + f]++;
+            }
+        }
+    }
+
+    /**
+     * Posição do documento na lista (ordenada por número de documento), ou -1.
+     */
+    private static int find(IntList entries, int doc) {
+        int low = 0;
+        int high = entries.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midDoc = entries.values[mid] >>> FIELD_BITS;
+            if (midDoc < doc) {
+                low = mid + 1;
+            } else if (midDoc > doc) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Acrescenta à pontuação bônus por campo em que a consulta aparece no início do campo
+     * ou de uma palavra.
+     */
+    private double exactScore(int doc, String query, double score) {
+        String[] fields = texts[doc];
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i];
+            int at = field.indexOf(query);
+            if (at < 0) {
+                continue;
+            }
+            if (at == 0) {
+                score += fieldWeights[i] * 0.5;
+            } else if (field.charAt(at - 1) == ' ') {
+                score += fieldWeights[i] * 0.25;
+            }
+        }
+        return score;
+    }
+
+    private void removeLocked(long id) {
+        Integer doc = docById.remove(id);
+        if (doc == null) {
+            return;
+        }
+        alive[doc] = false;
+        texts[doc] = null;
+        liveCount--;
+        if (docCount > 1024 && liveCount < docCount * 3 / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumera os documentos vivos e descarta das listas as entradas dos mortos.
+     */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (alive[doc]) {
+                remap[doc] = next;
+                ids[next] = ids[doc];
+                texts[next] = texts[doc];
+                alive[next] = true;
+                docById.put(ids[next], next);
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        Arrays.fill(alive, next, docCount, false);
+        Arrays.fill(texts, next, docCount, null);
+        docCount = next;
+        scratch.clear();
+
+        postings.values().removeIf(list -> {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int entry = list.values[i];
+                int mapped = remap[entry >>> FIELD_BITS];
+                if (mapped >= 0) {
+                    list.values[kept++] = mapped << FIELD_BITS | entry & ((1 << FIELD_BITS) - 1);
+                }
+            }
+            list.size = kept;
+            return kept == 0;
+        });
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newLength);
+        texts = Arrays.copyOf(texts, newLength);
+        alive = Arrays.copyOf(alive, newLength);
+    }
+
+    /**
+     * Trigramas distintos do texto normalizado. Com prefix=true a última palavra não recebe
+     * o espaço final, para casar com palavras que apenas começam com ela.
+     */
+    static int[] trigrams(String folded, boolean prefix) {
+        if (folded.isEmpty()) {
+            return new int[0];
+        }
+        String[] words = folded.split(" ");
+        IntList grams = new IntList();
+        for (int w = 0; w < words.length; w++) {
+            boolean last = w == words.length - 1;
+            String padded = "  " + words[w] + (prefix && last ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(code(padded.charAt(i)) * ALPHABET * ALPHABET
+                        + code(padded.charAt(i + 1)) * ALPHABET
+                        + code(padded.charAt(i + 2)));
+            }
+        }
+        return Arrays.stream(grams.values, 0, grams.size).distinct().toArray();
+    }
+
+    private static int code(char c) {
+        if (c == ' ') {
+            return 0;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        return c - '0' + 27;
+    }
+
+    private record Scored(int doc, double score) {
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
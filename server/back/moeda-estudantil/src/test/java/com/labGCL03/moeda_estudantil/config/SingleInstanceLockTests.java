@@ -0,0 +1,75 @@
+package com.labGCL03.moeda_estudantil.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SingleInstanceLockTests {
+
+	private DataSource dataSource;
+	private Connection connection;
+	private ResultSet result;
+	private SingleInstanceLock lock;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		dataSource = mock(DataSource.class);
+		connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		result = mock(ResultSet.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.executeQuery()).thenReturn(result);
+		when(result.next()).thenReturn(true);
+		lock = new SingleInstanceLock(dataSource);
+	}
+
+	@Test
+	void secondInstanceFailsToStart() throws SQLException {
+		when(result.getInt(1)).thenReturn(0);
+
+		assertThrows(IllegalStateException.class, lock::afterPropertiesSet);
+		verify(connection).close();
+	}
+
+	@Test
+	void lockConnectionStaysOpenUntilShutdown() throws SQLException {
+		when(result.getInt(1)).thenReturn(1);
+		when(result.getBoolean(1)).thenReturn(true);
+
+		lock.afterPropertiesSet();
+		lock.check();
+		verify(connection, never()).close();
+		verify(dataSource, times(1)).getConnection();
+
+		lock.destroy();
+		verify(connection).prepareStatement(contains("RELEASE_LOCK"));
+		verify(connection).close();
+	}
+
+	@Test
+	void lostLockIsTakenAgainOnAnotherConnection() throws SQLException {
+		when(result.getInt(1)).thenReturn(1);
+		when(result.getBoolean(1)).thenReturn(false);
+
+		lock.afterPropertiesSet();
+		lock.check();
+
+		verify(dataSource, times(2)).getConnection();
+		verify(connection, times(2)).prepareStatement(contains("GET_LOCK"));
+	}
+}
@@ -0,0 +1,168 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.entities.Company;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import com.labGCL03.moeda_estudantil.util.BoundedTtlCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Taxa de acerto do cache do catálogo com leituras concorrentes (listagem geral, listagem
+ * por empresa e vantagem por ID) enquanto resgates chegam a RATE por segundo. Compara o
+ * tratamento de AdvantageStockChangedEvent com o de antes, em que todo resgate publicava
+ * AdvantageChangedEvent. O repositório é simulado com LOAD_MILLIS por consulta, no lugar do
+ * banco, e as vantagens não têm foto. Rode com STRESS_TESTS=true.
+ */
+@EnabledIfEnvironmentVariable(named = "STRESS_TESTS", matches = "true")
+class AdvantageCatalogCacheBenchmarkTests {
+
+	private static final int ADVANTAGES = 500;
+	private static final int COMPANIES = 20;
+	private static final int READERS = 8;
+	private static final int RATE = 50;
+	private static final long LOAD_MILLIS = 5;
+	private static final Duration RUN = Duration.ofSeconds(3);
+
+	@Test
+	void listingsStayCachedUnderConcurrentRedemptions() throws InterruptedException {
+		double before = run((catalog, advantage) ->
+			catalog.onAdvantageChanged(new AdvantageChangedEvent(advantage.getId(), advantage.getCompany().getId())));
+		double after = run((catalog, advantage) ->
+			catalog.onAdvantageStockChanged(new AdvantageStockChangedEvent(advantage.getId(), advantage.getCompany().getId())));
+
+		System.out.printf("Acertos das listagens renderizadas com %d resgates/s: evento de vantagem=%.1f%%, evento de estoque=%.1f%%%n",
+			RATE, before * 100, after * 100);
+		assertTrue(after > 0.95, "listagens deveriam continuar em cache, acertos: " + after);
+		assertTrue(after > before);
+	}
+
+	private interface Redemption {
+		void publish(AdvantageCatalogService catalog, Advantage advantage);
+	}
+
+	private static double run(Redemption redemption) throws InterruptedException {
+		List<Advantage> advantages = advantages();
+		AdvantageRepository advantageRepository = mock(AdvantageRepository.class, withSettings().stubOnly());
+		CompanyRepository companyRepository = mock(CompanyRepository.class, withSettings().stubOnly());
+		when(advantageRepository.findAllWithCompany()).thenAnswer(invocation -> slow(advantages));
+		when(advantageRepository.findByIdWithCompany(anyLong())).thenAnswer(invocation ->
+			slow(Optional.of(advantages.get((int) (invocation.<Long>getArgument(0) - 1)))));
+		when(advantageRepository.findByCompanyIdWithCompany(anyLong())).thenAnswer(invocation -> slow(advantages.stream()
+			.filter(advantage -> advantage.getCompany().getId().equals(invocation.getArgument(0)))
+			.toList()));
+		when(advantageRepository.findAvailability(anyLong())).thenReturn(Optional.of(true));
+		when(companyRepository.findById(anyLong())).thenAnswer(invocation ->
+			Optional.of(advantages.get(0).getCompany()));
+
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		AdvantageCatalogService catalog = new AdvantageCatalogService(advantageRepository, companyRepository,
+			objectMapper, mock(AdvantageSearchService.class), new ImageVariantService(null, null),
+			1000, Duration.ofMinutes(10));
+
+		// Aquecimento fora da janela medida: a primeira renderização inclui o JIT do Jackson
+		for (int i = 0; i < 5; i++) {
+			catalog.invalidateAll();
+			catalog.renderAll();
+		}
+		BoundedTtlCache.Stats warm = catalog.stats().get("rendered");
+
+		long deadline = System.nanoTime() + RUN.toNanos();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < READERS; i++) {
+			threads.add(start(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < deadline) {
+					int roll = random.nextInt(10);
+					if (roll < 7) {
+						catalog.renderAll();
+					} else if (roll < 9) {
+						catalog.renderByCompanyId(1L + random.nextInt(COMPANIES), false);
+					} else {
+						catalog.findById(1L + random.nextInt(ADVANTAGES));
+					}
+				}
+			}));
+		}
+		threads.add(start(() -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			while (System.nanoTime() < deadline) {
+				redemption.publish(catalog, advantages.get(random.nextInt(ADVANTAGES)));
+				sleep(1000 / RATE);
+			}
+		}));
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Map<String, BoundedTtlCache.Stats> stats = catalog.stats();
+		BoundedTtlCache.Stats rendered = stats.get("rendered");
+		BoundedTtlCache.Stats snapshots = stats.get("snapshots");
+		System.out.printf("rendered: %s%nsnapshots: %s%n", rendered, snapshots);
+		long hits = rendered.hits() - warm.hits();
+		long misses = rendered.misses() - warm.misses();
+		return (double) hits / (hits + misses);
+	}
+
+	private static List<Advantage> advantages() {
+		List<Company> companies = new ArrayList<>();
+		for (long id = 1; id <= COMPANIES; id++) {
+			Company company = new Company();
+			company.setId(id);
+			company.setName("Empresa " + id);
+			companies.add(company);
+		}
+		List<Advantage> advantages = new ArrayList<>();
+		for (long id = 1; id <= ADVANTAGES; id++) {
+			Advantage advantage = new Advantage();
+			advantage.setId(id);
+			advantage.setName("Vantagem " + id);
+			advantage.setDescription("Descrição da vantagem " + id);
+			advantage.setCostInCoins(10 + (int) (id % 90));
+			advantage.setAvailableQuantity(1_000);
+			advantage.setCompany(companies.get((int) (id % COMPANIES)));
+			advantage.setCreatedAt(LocalDateTime.now());
+			advantages.add(advantage);
+		}
+		return advantages;
+	}
+
+	private static <T> T slow(T result) {
+		sleep(LOAD_MILLIS);
+		return result;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Thread start(Runnable task) {
+		Thread thread = new Thread(task);
+		thread.start();
+		return thread;
+	}
+}
@@ -0,0 +1,128 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.labGCL03.moeda_estudantil.dto.AdvantageResponseDTO;
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.entities.Company;
+import com.labGCL03.moeda_estudantil.enums.AdvantageSort;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageCatalogQuery.CatalogFilter;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdvantageCatalogServiceTests {
+
+	private AdvantageRepository advantageRepository;
+	private AdvantageSearchService advantageSearchService;
+	private AdvantageCatalogService service;
+
+	@BeforeEach
+	void setUp() {
+		advantageRepository = mock(AdvantageRepository.class);
+		advantageSearchService = mock(AdvantageSearchService.class);
+		service = new AdvantageCatalogService(advantageRepository, mock(CompanyRepository.class),
+			new ObjectMapper().registerModule(new JavaTimeModule()), advantageSearchService,
+			mock(ImageVariantService.class), 100, Duration.ofMinutes(1));
+		when(advantageRepository.findCatalogPage(any(), any(), any(), anyInt())).thenReturn(List.of());
+	}
+
+	@Test
+	void textSearchWithinCapIsNotTruncated() {
+		when(advantageSearchService.matchingIds("cafe", AdvantageCatalogService.MAX_TEXT_MATCHES + 1))
+			.thenReturn(ids(AdvantageCatalogService.MAX_TEXT_MATCHES));
+
+		CursorPageDTO<AdvantageResponseDTO> page = service.findPage(null, null, null, true, "cafe", null, null, null);
+
+		assertFalse(page.isTruncated());
+		assertEquals(AdvantageCatalogService.MAX_TEXT_MATCHES, filter().ids().size());
+	}
+
+	@Test
+	void textSearchOverCapIsFlaggedAndLimited() {
+		when(advantageSearchService.matchingIds("desconto", AdvantageCatalogService.MAX_TEXT_MATCHES + 1))
+			.thenReturn(ids(AdvantageCatalogService.MAX_TEXT_MATCHES + 1));
+
+		CursorPageDTO<AdvantageResponseDTO> page = service.findPage(null, null, null, true, "desconto", "cost_asc", null, null);
+
+		assertTrue(page.isTruncated());
+		assertEquals(AdvantageCatalogService.MAX_TEXT_MATCHES, filter().ids().size());
+	}
+
+	@Test
+	void withoutTextNothingIsTruncated() {
+		assertFalse(service.findPage(null, null, null, true, null, null, null, null).isTruncated());
+	}
+
+	@Test
+	void redemptionKeepsGeneralListingWhileAvailable() {
+		when(advantageRepository.findAllWithCompany()).thenReturn(List.of(advantage(7L, 3L)));
+		when(advantageRepository.findAvailability(7L)).thenReturn(Optional.of(true));
+		AdvantageCatalogService.RenderedCatalog listing = service.renderAll();
+
+		service.onAdvantageStockChanged(new AdvantageStockChangedEvent(7L, 3L));
+		service.onAdvantageStockChanged(new AdvantageStockChangedEvent(7L, 3L));
+
+		assertSame(listing, service.renderAll());
+		verify(advantageRepository, times(1)).findAllWithCompany();
+	}
+
+	@Test
+	void soldOutRedemptionDropsGeneralListing() {
+		when(advantageRepository.findAllWithCompany()).thenReturn(List.of(advantage(7L, 3L)));
+		when(advantageRepository.findAvailability(7L)).thenReturn(Optional.of(false));
+		AdvantageCatalogService.RenderedCatalog listing = service.renderAll();
+
+		service.onAdvantageStockChanged(new AdvantageStockChangedEvent(7L, 3L));
+
+		assertNotSame(listing, service.renderAll());
+		verify(advantageRepository, times(2)).findAllWithCompany();
+	}
+
+	private static Advantage advantage(Long id, Long companyId) {
+		Company company = new Company();
+		company.setId(companyId);
+		company.setName("Empresa " + companyId);
+		Advantage advantage = new Advantage();
+		advantage.setId(id);
+		advantage.setName("Vantagem " + id);
+		advantage.setDescription("Descrição");
+		advantage.setCostInCoins(10);
+		advantage.setAvailableQuantity(5);
+		advantage.setCompany(company);
+		advantage.setCreatedAt(LocalDateTime.now());
+		return advantage;
+	}
+
+	private CatalogFilter filter() {
+		ArgumentCaptor<CatalogFilter> filter = ArgumentCaptor.forClass(CatalogFilter.class);
+		verify(advantageRepository).findCatalogPage(filter.capture(), any(AdvantageSort.class), eq(null), anyInt());
+		return filter.getValue();
+	}
+
+	private static List<Long> ids(int count) {
+		return LongStream.rangeClosed(1, count).boxed().toList();
+	}
+}
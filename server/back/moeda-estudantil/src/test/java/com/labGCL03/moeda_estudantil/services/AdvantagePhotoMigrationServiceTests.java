@@ -0,0 +1,61 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdvantagePhotoMigrationServiceTests {
+
+	private static final String PNG_PHOTO = "data:image/png;base64,iVBORw0KGgo=";
+
+	private JdbcTemplate jdbcTemplate;
+	private ImageStore imageStore;
+	private AdvantagePhotoMigrationService service;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		imageStore = mock(ImageStore.class);
+		service = new AdvantagePhotoMigrationService(jdbcTemplate, imageStore, mock(ImageVariantService.class), false);
+		when(jdbcTemplate.queryForObject(contains("information_schema"), eq(Integer.class))).thenReturn(1);
+		when(jdbcTemplate.queryForList(contains("SELECT id FROM advantages"), eq(Long.class))).thenReturn(List.of(7L));
+	}
+
+	@Test
+	void storageFailureLeavesThePhotoForTheNextRun() {
+		when(jdbcTemplate.queryForList(contains("SELECT photo FROM advantages"), eq(7L)))
+			.thenReturn(List.of(Map.of("photo", PNG_PHOTO)));
+		when(imageStore.store(any(byte[].class))).thenThrow(new UncheckedIOException(new IOException("No space left on device")));
+
+		assertThrows(UncheckedIOException.class, service::migrate);
+
+		verify(jdbcTemplate, never()).update(contains("advantage_legacy_photos"), anyString(), eq(7L));
+		verify(jdbcTemplate, never()).update("UPDATE advantages SET photo = NULL WHERE id = ?", 7L);
+	}
+
+	@Test
+	void undecodablePhotoIsSetAside() {
+		when(jdbcTemplate.queryForList(contains("SELECT photo FROM advantages"), eq(7L)))
+			.thenReturn(List.of(Map.of("photo", "data:image/png,sem-base64")));
+
+		service.migrate();
+
+		verify(jdbcTemplate).update(contains("advantage_legacy_photos"), anyString(), eq(7L));
+		verify(jdbcTemplate).update("UPDATE advantages SET photo = NULL WHERE id = ?", 7L);
+	}
+}
@@ -0,0 +1,135 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.entities.Company;
+import com.labGCL03.moeda_estudantil.enums.Role;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mede quantos bytes o MySQL envia (Bytes_sent da sessão) para as consultas de orçamento
+ * e de resgate, antes e depois de tirar o payload da foto da linha de advantages.
+ *
+ * O "antes" é uma cópia das mesmas vantagens em bench_advantages_wide, com a coluna photo
+ * LONGTEXT preenchida como era o data URL Base64, lida com SELECT a.* (o que o Hibernate
+ * fazia com a coluna mapeada). O "depois" são as consultas reais do AdvantageRepository.
+ */
+@SpringBootTest
+@MySqlTest
+class AdvantageRowBytesBenchmarkTests {
+
+	private static final int ADVANTAGES = 50;
+	private static final int PHOTO_CHARS = 300 * 1024;
+	private static final String WIDE_TABLE = "bench_advantages_wide";
+
+	@Autowired
+	private AdvantageRepository advantageRepository;
+
+	@Autowired
+	private CompanyRepository companyRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void dropWideCopy() {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + WIDE_TABLE);
+	}
+
+	@Test
+	void narrowRowsShipFarFewerBytes() {
+		String run = Long.toString(System.nanoTime());
+		Company company = new Company();
+		company.setName("Empresa bench " + run);
+		company.setEmail("empresa." + run + "@stress.test");
+		company.setPassword("x");
+		company.setRole(Role.COMPANY);
+		Long companyId = companyRepository.save(company).getId();
+
+		List<Advantage> advantages = new ArrayList<>();
+		for (int i = 0; i < ADVANTAGES; i++) {
+			Advantage advantage = new Advantage();
+			advantage.setName("Vantagem " + i);
+			advantage.setCostInCoins(10 + i);
+			advantage.setAvailableQuantity(100);
+			advantage.setCompany(company);
+			advantages.add(advantage);
+		}
+		advantageRepository.saveAll(advantages);
+		Long redeemedId = advantages.get(0).getId();
+
+		createWideCopy(companyId);
+
+		long budgetBefore = bytesSent(() -> jdbcTemplate.queryForList(
+			"SELECT a.*, u.* FROM " + WIDE_TABLE + " a JOIN users u ON u.id = a.company_id " +
+			"WHERE a.company_id = ? AND a.cost_in_coins BETWEEN ? AND ?", companyId, 0, Integer.MAX_VALUE).size());
+		long budgetAfter = bytesSent(() -> advantageRepository
+			.findAdvantagesByCompanyAndCostRange(companyId, 0, Integer.MAX_VALUE).size());
+
+		long redeemBefore = bytesSent(() -> jdbcTemplate.queryForList(
+			"SELECT a.*, u.* FROM " + WIDE_TABLE + " a LEFT JOIN users u ON u.id = a.company_id WHERE a.id = ?",
+			redeemedId).size());
+		long redeemAfter = bytesSent(() -> advantageRepository.findByIdWithCompany(redeemedId).isPresent() ? 1 : 0);
+
+		System.out.printf("Bytes enviados pelo MySQL: orçamento %d -> %d, resgate %d -> %d%n",
+			budgetBefore, budgetAfter, redeemBefore, redeemAfter);
+		assertTrue(budgetAfter * 20 < budgetBefore, "orçamento: " + budgetBefore + " -> " + budgetAfter);
+		assertTrue(redeemAfter * 20 < redeemBefore, "resgate: " + redeemBefore + " -> " + redeemAfter);
+	}
+
+	private void createWideCopy(Long companyId) {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + WIDE_TABLE);
+		jdbcTemplate.execute("CREATE TABLE " + WIDE_TABLE + " LIKE advantages");
+		Integer hasPhoto = jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM information_schema.columns " +
+			"WHERE table_schema = DATABASE() AND table_name = ? AND column_name = 'photo'",
+			Integer.class, WIDE_TABLE);
+		if (hasPhoto == 0) {
+			jdbcTemplate.execute("ALTER TABLE " + WIDE_TABLE + " ADD COLUMN photo LONGTEXT");
+		}
+		String columns = jdbcTemplate.queryForObject(
+			"SELECT GROUP_CONCAT(column_name ORDER BY ordinal_position) FROM information_schema.columns " +
+			"WHERE table_schema = DATABASE() AND table_name = 'advantages'", String.class);
+		jdbcTemplate.update("INSERT INTO " + WIDE_TABLE + " (" + columns + ") SELECT " + columns +
+			" FROM advantages WHERE company_id = ?", companyId);
+		int filled = jdbcTemplate.update("UPDATE " + WIDE_TABLE + " SET photo = CONCAT('data:image/jpeg;base64,', REPEAT('A', ?))",
+			PHOTO_CHARS);
+		assertEquals(ADVANTAGES, filled);
+	}
+
+	/**
+	 * Bytes que o servidor mandou para esta conexão durante a leitura. A leitura e as duas
+	 * consultas de status rodam na mesma transação, portanto na mesma conexão.
+	 */
+	private long bytesSent(IntSupplier read) {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		return template.execute(status -> {
+			long before = sessionBytesSent();
+			assertTrue(read.getAsInt() > 0);
+			return sessionBytesSent() - before;
+		});
+	}
+
+	private long sessionBytesSent() {
+		return jdbcTemplate.query("SHOW SESSION STATUS LIKE 'Bytes_sent'",
+			rs -> rs.next() ? rs.getLong("Value") : 0L);
+	}
+}
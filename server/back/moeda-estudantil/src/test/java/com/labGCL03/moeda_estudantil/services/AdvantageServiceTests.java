@@ -0,0 +1,76 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.dto.AdvantageUpdateDTO;
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.entities.Company;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdvantageServiceTests {
+
+	private AdvantageRepository advantageRepository;
+	private AdvantageService service;
+	private Advantage advantage;
+
+	@BeforeEach
+	void setUp() {
+		advantageRepository = mock(AdvantageRepository.class);
+		service = new AdvantageService(advantageRepository, mock(CompanyRepository.class), mock(ImageStore.class),
+			mock(AdvantageSearchService.class), mock(ImageVariantService.class), mock(ApplicationEventPublisher.class));
+
+		Company company = new Company();
+		company.setId(1L);
+		advantage = new Advantage();
+		advantage.setId(10L);
+		advantage.setName("Café");
+		advantage.setCostInCoins(5);
+		advantage.setAvailableQuantity(3);
+		advantage.setCompany(company);
+		when(advantageRepository.findById(10L)).thenReturn(Optional.of(advantage));
+		when(advantageRepository.save(advantage)).thenReturn(advantage);
+	}
+
+	@Test
+	void updateSetsStockThroughAtomicUpdate() {
+		AdvantageUpdateDTO dto = new AdvantageUpdateDTO();
+		dto.setName("Café expresso");
+		dto.setAvailableQuantity(50);
+
+		service.update(10L, dto);
+
+		verify(advantageRepository).setStock(10L, 50);
+		// A entidade salva não carrega o estoque: a coluna não entra no UPDATE dela
+		assertEquals(3, advantage.getAvailableQuantity());
+	}
+
+	@Test
+	void updateWithoutQuantityLeavesStockAlone() {
+		AdvantageUpdateDTO dto = new AdvantageUpdateDTO();
+		dto.setDescription("Qualquer tamanho");
+
+		service.update(10L, dto);
+
+		verify(advantageRepository, never()).setStock(anyLong(), anyInt());
+	}
+
+	@Test
+	void reactivateAddsToCurrentStockInTheDatabase() {
+		service.reactivateAdvantage(10L, 20);
+
+		verify(advantageRepository).addStock(10L, 20);
+		verify(advantageRepository, never()).save(advantage);
+	}
+}
@@ -0,0 +1,115 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.entities.Teacher;
+import com.labGCL03.moeda_estudantil.entities.Transaction;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conta os INSERTs que chegam ao MySQL (Com_insert da sessão) ao gravar 1.000 transações,
+ * com o batch configurado e com o batch desligado na sessão. Com IDs pooled e
+ * rewriteBatchedStatements, cada lote de batch_size linhas vira um único comando.
+ */
+@SpringBootTest
+@MySqlTest
+class BatchInsertStatementTests {
+
+	private static final int ROWS = 1000;
+	private static final int BATCH_SIZE = 50;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void thousandRowInsertIsSentInBatches() {
+		StressFixtures fixtures = new StressFixtures(institutionRepository, teacherRepository, studentRepository);
+		Institution institution = fixtures.institution();
+		Teacher teacher = fixtures.teacher(institution, 0);
+		Student student = studentRepository.findById(fixtures.students(institution, 1, 0).get(0)).orElseThrow();
+
+		long unbatched = countInserts(teacher, student, 1);
+		long batched = countInserts(teacher, student, null);
+
+		System.out.printf("INSERTs para %d linhas: sem batch=%d, com batch=%d%n", ROWS, unbatched, batched);
+		assertTrue(unbatched >= ROWS, "sem batch: " + unbatched);
+		assertTrue(batched <= ROWS / BATCH_SIZE + 1, "com batch: " + batched);
+	}
+
+	/**
+	 * Grava ROWS transações e devolve quantos INSERTs a conexão executou; tudo é desfeito
+	 * no final.
+	 */
+	private long countInserts(Teacher teacher, Student student, Integer jdbcBatchSize) {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		Long inserts = template.execute(status -> {
+			if (jdbcBatchSize != null) {
+				entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+			}
+			List<Transaction> rows = new ArrayList<>();
+			LocalDateTime now = LocalDateTime.now();
+			for (int i = 0; i < ROWS; i++) {
+				Transaction transaction = new Transaction();
+				transaction.setSender(teacher);
+				transaction.setReceiver(student);
+				transaction.setAmount(1);
+				transaction.setReason("Lote " + i);
+				transaction.setType(TransactionType.SENT);
+				transaction.setDate(now);
+				transaction.setInstitution(teacher.getInstitution());
+				rows.add(transaction);
+			}
+
+			long before = sessionInserts();
+			transactionRepository.saveAll(rows);
+			entityManager.flush();
+			long after = sessionInserts();
+
+			status.setRollbackOnly();
+			return after - before;
+		});
+		return inserts;
+	}
+
+	// Mesma conexão da transação JPA: o JpaTransactionManager a expõe para o JdbcTemplate
+	private long sessionInserts() {
+		return jdbcTemplate.query("SHOW SESSION STATUS LIKE 'Com_insert'",
+			rs -> rs.next() ? rs.getLong("Value") : 0L);
+	}
+}
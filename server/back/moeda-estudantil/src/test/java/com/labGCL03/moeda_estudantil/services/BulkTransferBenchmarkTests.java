@@ -0,0 +1,85 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.dto.TransferCoinsDTO;
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara premiar uma turma de 200 alunos com um sendCoins por aluno (o que o frontend
+ * fazia) contra um único sendCoinsBulk, e imprime a vazão de cada um.
+ */
+@SpringBootTest
+@MySqlTest
+class BulkTransferBenchmarkTests {
+
+	private static final int CLASS_SIZE = 200;
+	private static final int AMOUNT = 5;
+	private static final int ROUNDS = 5;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@MockitoBean
+	private EmailService emailService;
+
+	@Test
+	void bulkTransferOutperformsPerStudentLoop() {
+		StressFixtures fixtures = new StressFixtures(institutionRepository, teacherRepository, studentRepository);
+		Institution institution = fixtures.institution();
+		Long teacherId = fixtures.teacher(institution, CLASS_SIZE * AMOUNT * (ROUNDS + 1) * 2).getId();
+		List<Long> studentIds = fixtures.students(institution, CLASS_SIZE, 0);
+		List<TransferCoinsDTO> transfers = studentIds.stream()
+			.map(id -> new TransferCoinsDTO(id, AMOUNT, "Premiação da turma"))
+			.toList();
+
+		// Aquecimento: JIT, pool de conexões e blocos de IDs
+		loop(teacherId, transfers);
+		transactionService.sendCoinsBulk(teacherId, transfers);
+
+		long loopNanos = 0;
+		long bulkNanos = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			loop(teacherId, transfers);
+			loopNanos += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			assertEquals(CLASS_SIZE, transactionService.sendCoinsBulk(teacherId, transfers));
+			bulkNanos += System.nanoTime() - start;
+		}
+
+		double loopRate = CLASS_SIZE * ROUNDS / (loopNanos / 1e9);
+		double bulkRate = CLASS_SIZE * ROUNDS / (bulkNanos / 1e9);
+		System.out.printf("Transferências por segundo: loop=%.0f, bulk=%.0f (%.1fx)%n",
+			loopRate, bulkRate, bulkRate / loopRate);
+
+		assertTrue(bulkNanos < loopNanos, "bulk deveria ser mais rápido que o loop");
+		assertEquals(0, teacherRepository.findById(teacherId).orElseThrow().getCurrentBalance().intValue());
+	}
+
+	private void loop(Long teacherId, List<TransferCoinsDTO> transfers) {
+		for (TransferCoinsDTO transfer : transfers) {
+			transactionService.sendCoins(teacherId, transfer.getStudentId(), transfer.getAmount(), transfer.getReason());
+		}
+	}
+}
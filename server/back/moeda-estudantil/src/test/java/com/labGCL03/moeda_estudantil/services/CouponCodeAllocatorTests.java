@@ -0,0 +1,68 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CouponCodeAllocatorTests {
+
+	private static final int BLOCK = 10;
+
+	private JdbcTemplate jdbcTemplate;
+	private PlatformTransactionManager transactionManager;
+	private final AtomicLong nextVal = new AtomicLong();
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> nextVal.addAndGet(BLOCK));
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+	}
+
+	@Test
+	void emptyPoolReservesBlockInItsOwnTransaction() {
+		// Executor que nunca roda o refill: o resgate encontra o pool vazio
+		CouponCodeAllocator allocator = allocator(task -> { });
+
+		assertNotNull(allocator.next());
+
+		ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(transactionManager, atLeastOnce()).getTransaction(definition.capture());
+		assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+	}
+
+	@Test
+	void saturatedExecutorDoesNotFailTheRedemption() {
+		CouponCodeAllocator allocator = allocator(task -> {
+			throw new TaskRejectedException("fila cheia");
+		});
+
+		// Sem pool, o primeiro resgate reserva na hora; os seguintes usam o bloco mesmo
+		// com todo refill em segundo plano recusado
+		for (int i = 0; i < BLOCK; i++) {
+			assertNotNull(allocator.next());
+		}
+	}
+
+	private CouponCodeAllocator allocator(Executor executor) {
+		return new CouponCodeAllocator(jdbcTemplate, transactionManager, executor, "1234567890123456789", 40, 20, BLOCK);
+	}
+}
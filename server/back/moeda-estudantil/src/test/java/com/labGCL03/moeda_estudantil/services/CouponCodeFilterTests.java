@@ -0,0 +1,185 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.util.BloomFilter;
+import com.labGCL03.moeda_estudantil.util.CouponCodes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CouponCodeFilterTests {
+
+	private final List<String> committed = new ArrayList<>();
+	private JdbcTemplate jdbcTemplate;
+	private CouponCodeFilter filter;
+	// Executado no início de cada leitura da tabela, com o filtro novo já em building
+	private volatile Runnable onScan = () -> { };
+
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupons", Long.class))
+			.thenAnswer(invocation -> (long) committed.size());
+		ResultSet rs = mock(ResultSet.class);
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			onScan.run();
+			for (String code : List.copyOf(committed)) {
+				when(rs.getString(1)).thenReturn(code);
+				handler.processRow(rs);
+			}
+			return null;
+		}).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+		// Executor síncrono: a reconstrução roda dentro de checkSaturation
+		filter = new CouponCodeFilter(jdbcTemplate, Runnable::run, 16, 0.001);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void rejectsCodesNeverIssued() {
+		committed.add(code(1));
+		filter.buildOnStartup();
+
+		assertTrue(filter.mightContain(code(1)));
+		assertFalse(filter.mightContain(code(2)));
+	}
+
+	@Test
+	void rebuildKeepsCodeWhoseTransactionCommitsAfterTheScan() {
+		committed.add(code(1));
+		filter.buildOnStartup();
+
+		// Emitido antes da reconstrução, numa transação que só commita depois da leitura
+		TransactionSynchronizationManager.initSynchronization();
+		filter.add(code(2));
+		for (int i = 3; i < 40; i++) {
+			committed.add(code(i));
+			filter.add(code(i));
+		}
+		filter.checkSaturation();
+
+		assertTrue(filter.mightContain(code(2)), "código em transação aberta sumiu do filtro reconstruído");
+		for (int i = 3; i < 40; i++) {
+			assertTrue(filter.mightContain(code(i)));
+		}
+	}
+
+	@Test
+	void finishedTransactionsLeaveTheInFlightSet() {
+		committed.add(code(1));
+		filter.buildOnStartup();
+
+		TransactionSynchronizationManager.initSynchronization();
+		filter.add(code(2));
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+		TransactionSynchronizationManager.clearSynchronization();
+		for (int i = 3; i < 40; i++) {
+			committed.add(code(i));
+			filter.add(code(i));
+		}
+		filter.checkSaturation();
+
+		// O resgate desfeito não foi lido da tabela nem copiado de inFlight
+		assertFalse(filter.mightContain(code(2)));
+	}
+
+	@Test
+	void addRacingTheSwapStillReachesTheNewFilter() throws Exception {
+		String racing = code(2);
+		CountDownLatch addBlocked = new CountDownLatch(1);
+		CountDownLatch swapDone = new CountDownLatch(1);
+		AtomicReference<Thread> rebuilder = new AtomicReference<>();
+		filter = new CouponCodeFilter(jdbcTemplate, task -> {
+			rebuilder.set(new Thread(task));
+			rebuilder.get().start();
+		}, 16, 0.001) {
+			private boolean first = true;
+
+			@Override
+			BloomFilter newFilter(long expectedCodes) {
+				if (!first) {
+					return super.newFilter(expectedCodes);
+				}
+				first = false;
+				// O filtro que será trocado segura o put do código até a troca terminar
+				return new BloomFilter(expectedCodes, 0.001) {
+					@Override
+					public void put(String value) {
+						super.put(value);
+						if (value.equals(racing)) {
+							addBlocked.countDown();
+							await(swapDone);
+						}
+					}
+				};
+			}
+		};
+		committed.add(code(1));
+		filter.buildOnStartup();
+		for (int i = 3; i < 40; i++) {
+			committed.add(code(i));
+			filter.add(code(i));
+		}
+
+		// Reconstrução parada na leitura da tabela: o código é emitido depois da cópia de
+		// inFlight e só commita depois da leitura
+		CountDownLatch scanning = new CountDownLatch(1);
+		CountDownLatch releaseScan = new CountDownLatch(1);
+		onScan = () -> {
+			scanning.countDown();
+			await(releaseScan);
+		};
+		filter.checkSaturation();
+		assertTrue(scanning.await(5, TimeUnit.SECONDS));
+
+		Thread issuer = new Thread(() -> filter.add(racing));
+		issuer.start();
+		assertTrue(addBlocked.await(5, TimeUnit.SECONDS));
+		releaseScan.countDown();
+		rebuilder.get().join(5_000);
+		swapDone.countDown();
+		issuer.join(5_000);
+
+		assertTrue(filter.mightContain(racing), "código emitido durante a troca sumiu do filtro novo");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String code(long sequence) {
+		return CouponCodes.format(CouponCodes.scramble(sequence, 42));
+	}
+}
@@ -0,0 +1,125 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.entities.Company;
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.enums.Role;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dispara 1.000 resgates simultâneos contra uma vantagem com 100 cupons e confere que
+ * exatamente 100 são emitidos.
+ */
+@SpringBootTest
+@MySqlTest
+class CouponServiceConcurrencyTests {
+
+	private static final int STOCK = 100;
+	private static final int ATTEMPTS = 1000;
+	private static final int STUDENTS = 50;
+	private static final int COST = 10;
+
+	@Autowired
+	private CouponService couponService;
+
+	@Autowired
+	private AdvantageRepository advantageRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CompanyRepository companyRepository;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Test
+	void neverIssuesMoreCouponsThanStock() throws Exception {
+		String run = Long.toString(System.nanoTime());
+
+		Institution institution = new Institution();
+		institution.setName("Instituição estresse " + run);
+		institution.setCreatedAt(LocalDateTime.now());
+		institution = institutionRepository.save(institution);
+
+		Company company = new Company();
+		company.setName("Empresa estresse " + run);
+		company.setEmail("empresa." + run + "@stress.test");
+		company.setPassword("x");
+		company.setRole(Role.COMPANY);
+		company = companyRepository.save(company);
+
+		Advantage advantage = new Advantage();
+		advantage.setName("Oferta relâmpago " + run);
+		advantage.setCostInCoins(COST);
+		advantage.setAvailableQuantity(STOCK);
+		advantage.setCompany(company);
+		Long advantageId = advantageRepository.save(advantage).getId();
+
+		List<Long> studentIds = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student();
+			student.setName("Aluno " + i);
+			student.setEmail("aluno" + i + "." + run + "@stress.test");
+			student.setPassword("x");
+			student.setRole(Role.STUDENT);
+			student.setInstitution(institution);
+			student.setCoinBalance(COST * ATTEMPTS);
+			studentIds.add(studentRepository.save(student).getId());
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < ATTEMPTS; i++) {
+			Long studentId = studentIds.get(i % STUDENTS);
+			results.add(pool.submit(() -> {
+				start.await();
+				try {
+					couponService.redeemAdvantage(studentId, advantageId);
+					return true;
+				} catch (IllegalArgumentException soldOut) {
+					return false;
+				}
+			}));
+		}
+		start.countDown();
+
+		int issued = 0;
+		for (Future<Boolean> result : results) {
+			if (result.get()) {
+				issued++;
+			}
+		}
+		pool.shutdown();
+		pool.awaitTermination(1, TimeUnit.MINUTES);
+
+		long debited = studentIds.stream()
+			.mapToLong(id -> COST * ATTEMPTS - studentRepository.findById(id).orElseThrow().getCoinBalance())
+			.sum();
+
+		assertEquals(STOCK, issued);
+		assertEquals(STOCK, advantageRepository.countCouponsGenerated(advantageId).intValue());
+		assertEquals(0, advantageRepository.findById(advantageId).orElseThrow().getAvailableQuantity().intValue());
+		assertEquals((long) STOCK * COST, debited);
+	}
+}
@@ -0,0 +1,175 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.entities.Company;
+import com.labGCL03.moeda_estudantil.entities.Coupon;
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.enums.Role;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import com.labGCL03.moeda_estudantil.repositories.CouponRepository;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import com.labGCL03.moeda_estudantil.util.CouponCodes;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vazão do validateCoupon sob a carga de um caixa: metade dos códigos emitidos e válidos,
+ * metade com erro de digitação, lixo ou bem formados mas nunca emitidos. Compara com o
+ * caminho antigo, um findByCode para cada leitura.
+ */
+@SpringBootTest
+@MySqlTest
+class CouponValidationBenchmarkTests {
+
+	private static final int ISSUED = 200;
+	private static final int SCANS = 20_000;
+	private static final int WARMUP = 2_000;
+
+	@Autowired
+	private CouponService couponService;
+
+	@Autowired
+	private CouponCodeAllocator couponCodeAllocator;
+
+	@Autowired
+	private CouponCodeFilter couponCodeFilter;
+
+	@Autowired
+	private CouponRepository couponRepository;
+
+	@Autowired
+	private AdvantageRepository advantageRepository;
+
+	@Autowired
+	private CompanyRepository companyRepository;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Test
+	void mixedLoadRejectsInvalidCodesWithoutTheDatabase() throws InterruptedException {
+		List<String> issued = issueCoupons();
+		awaitFilter();
+
+		Random random = new Random(7);
+		List<String> scans = new ArrayList<>(SCANS);
+		int valid = 0;
+		for (int i = 0; i < SCANS; i++) {
+			String code = issued.get(random.nextInt(issued.size()));
+			switch (i % 6) {
+				case 0, 1, 2 -> valid++;
+				case 3 -> code = typo(code, random);
+				case 4 -> code = "GARBAGE-" + random.nextInt(1000);
+				default -> code = CouponCodes.format(random.nextLong(CouponCodes.MAX_SEQUENCE));
+			}
+			scans.add(code);
+		}
+
+		validate(scans.subList(0, WARMUP));
+		lookup(scans.subList(0, WARMUP));
+
+		long start = System.nanoTime();
+		int accepted = validate(scans);
+		long validateNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		lookup(scans);
+		long lookupNanos = System.nanoTime() - start;
+
+		double validateRate = SCANS / (validateNanos / 1e9);
+		double lookupRate = SCANS / (lookupNanos / 1e9);
+		System.out.printf("Leituras por segundo (50%% válidas): validateCoupon=%.0f, findByCode=%.0f (%.1fx); %s%n",
+			validateRate, lookupRate, validateRate / lookupRate, couponCodeFilter.stats());
+
+		assertEquals(valid, accepted);
+		assertTrue(validateNanos < lookupNanos, "a recusa em memória deveria superar um findByCode por leitura");
+	}
+
+	private int validate(List<String> scans) {
+		int accepted = 0;
+		for (String code : scans) {
+			try {
+				couponService.validateCoupon(code);
+				accepted++;
+			} catch (RuntimeException e) {
+				// Código inválido ou inexistente: é o que o caixa vê como recusa
+			}
+		}
+		return accepted;
+	}
+
+	private void lookup(List<String> scans) {
+		for (String code : scans) {
+			couponRepository.findByCode(code);
+		}
+	}
+
+	private List<String> issueCoupons() {
+		StressFixtures fixtures = new StressFixtures(institutionRepository, teacherRepository, studentRepository);
+		Institution institution = fixtures.institution();
+		Student student = studentRepository.findById(fixtures.students(institution, 1, 0).get(0)).orElseThrow();
+
+		Company company = new Company();
+		company.setName("Empresa validação " + fixtures.run);
+		company.setEmail("empresa." + fixtures.run + "@stress.test");
+		company.setPassword("x");
+		company.setRole(Role.COMPANY);
+		company = companyRepository.save(company);
+
+		Advantage advantage = new Advantage();
+		advantage.setName("Vantagem validação " + fixtures.run);
+		advantage.setCostInCoins(1);
+		advantage.setCompany(company);
+		advantage = advantageRepository.save(advantage);
+
+		List<String> codes = new ArrayList<>();
+		for (int i = 0; i < ISSUED; i++) {
+			Coupon coupon = new Coupon();
+			coupon.setCode(couponCodeAllocator.next());
+			couponCodeFilter.add(coupon.getCode());
+			coupon.setStudent(student);
+			coupon.setAdvantage(advantage);
+			codes.add(couponRepository.save(coupon).getCode());
+		}
+		return codes;
+	}
+
+	private void awaitFilter() throws InterruptedException {
+		for (int i = 0; i < 300 && !Boolean.TRUE.equals(couponCodeFilter.stats().get("ready")); i++) {
+			Thread.sleep(100);
+		}
+		assertTrue(Boolean.TRUE.equals(couponCodeFilter.stats().get("ready")), "filtro de códigos não ficou pronto");
+	}
+
+	/**
+	 * Troca um caractere de dados por outro do alfabeto, como um erro de leitura do caixa.
+	 */
+	private static String typo(String code, Random random) {
+		char[] chars = code.toCharArray();
+		int at = random.nextInt(5);
+		char replacement;
+		do {
+			replacement = CouponCodes.ALPHABET.charAt(random.nextInt(CouponCodes.ALPHABET.length()));
+		} while (replacement == chars[at]);
+		chars[at] = replacement;
+		return new String(chars);
+	}
+}
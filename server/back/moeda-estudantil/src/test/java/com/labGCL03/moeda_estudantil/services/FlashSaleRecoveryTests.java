@@ -0,0 +1,158 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Advantage;
+import com.labGCL03.moeda_estudantil.entities.Company;
+import com.labGCL03.moeda_estudantil.entities.Coupon;
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.enums.Role;
+import com.labGCL03.moeda_estudantil.repositories.AdvantageRepository;
+import com.labGCL03.moeda_estudantil.repositories.CompanyRepository;
+import com.labGCL03.moeda_estudantil.repositories.CouponRepository;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Estoque da promoção relâmpago depois de uma parada inesperada e contagem de resgates
+ * concorrendo com a conferência de times_redeemed. Cada "instância" é um
+ * FlashSaleInventoryService criado à mão sobre o mesmo banco, para simular a queda sem
+ * derrubar o contexto.
+ */
+@SpringBootTest
+@MySqlTest
+class FlashSaleRecoveryTests {
+
+	private static final int STOCK = 100;
+	private static final int BATCH = 20;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private AdvantageRedemptionCounterService redemptionCounterService;
+
+	@Autowired
+	private AdvantageRepository advantageRepository;
+
+	@Autowired
+	private CompanyRepository companyRepository;
+
+	@Autowired
+	private CouponRepository couponRepository;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	private StressFixtures fixtures;
+	private Advantage advantage;
+	private Student student;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new StressFixtures(institutionRepository, teacherRepository, studentRepository);
+		Institution institution = fixtures.institution();
+		student = studentRepository.findById(fixtures.students(institution, 1, 0).get(0)).orElseThrow();
+
+		Company company = new Company();
+		company.setName("Empresa relâmpago " + fixtures.run);
+		company.setEmail("empresa." + fixtures.run + "@stress.test");
+		company.setPassword("x");
+		company.setRole(Role.COMPANY);
+		company = companyRepository.save(company);
+
+		advantage = new Advantage();
+		advantage.setName("Oferta relâmpago " + fixtures.run);
+		advantage.setCostInCoins(1);
+		advantage.setAvailableQuantity(STOCK);
+		advantage.setFlashSale(true);
+		advantage.setCompany(company);
+		advantage = advantageRepository.save(advantage);
+	}
+
+	@Test
+	void crashReturnsReservedUnitsAndCountsPendingCoupons() {
+		FlashSaleInventoryService crashed = newInstance();
+		// Dois resgates completos e um que gravou o cupom mas caiu antes do confirm
+		redeem(crashed).confirm();
+		redeem(crashed).confirm();
+		redeem(crashed);
+		assertEquals(Map.of("available", STOCK - BATCH, "reserved", BATCH, "redeemed", 0), counters());
+
+		newInstance().afterSingletonsInstantiated();
+
+		assertEquals(Map.of("available", STOCK - 3, "reserved", 0, "redeemed", 3), counters());
+		assertEquals(0, uncountedCoupons());
+	}
+
+	@Test
+	void reconcileBetweenRedemptionAndCountDoesNotCountTwice() {
+		FlashSaleInventoryService inventory = newInstance();
+		redeem(inventory).confirm();
+		redeem(inventory).confirm();
+
+		// Cupons gravados e ainda não somados: a conferência não pode contá-los
+		redemptionCounterService.reconcile();
+		assertEquals(Map.of("available", STOCK - BATCH, "reserved", BATCH, "redeemed", 0), counters());
+
+		// A contagem soma os dois uma única vez, e uma nova conferência não muda nada
+		inventory.flush();
+		assertEquals(Map.of("available", STOCK - BATCH, "reserved", BATCH - 2, "redeemed", 2), counters());
+		redemptionCounterService.reconcile();
+		assertEquals(Map.of("available", STOCK - BATCH, "reserved", BATCH - 2, "redeemed", 2), counters());
+		inventory.returnAll();
+		assertEquals(Map.of("available", STOCK - 2, "reserved", 0, "redeemed", 2), counters());
+	}
+
+	private FlashSaleInventoryService newInstance() {
+		return new FlashSaleInventoryService(jdbcTemplate, eventPublisher, transactionManager, BATCH, Duration.ofHours(1));
+	}
+
+	private FlashSaleInventoryService.Reservation redeem(FlashSaleInventoryService inventory) {
+		FlashSaleInventoryService.Reservation reservation =
+			inventory.reserve(advantage.getId(), advantage.getCompany().getId(), false);
+		Coupon coupon = new Coupon();
+		coupon.setStudent(student);
+		coupon.setAdvantage(advantage);
+		coupon.setRedemptionCounted(false);
+		couponRepository.save(coupon);
+		return reservation;
+	}
+
+	private Map<String, Integer> counters() {
+		return jdbcTemplate.queryForObject(
+			"SELECT available_quantity, reserved_quantity, times_redeemed FROM advantages WHERE id = ?",
+			(rs, row) -> Map.of("available", rs.getInt(1), "reserved", rs.getInt(2), "redeemed", rs.getInt(3)),
+			advantage.getId());
+	}
+
+	private int uncountedCoupons() {
+		return jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM coupons WHERE advantage_id = ? AND redemption_counted = FALSE",
+			Integer.class, advantage.getId());
+	}
+}
@@ -0,0 +1,139 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.entities.Transaction;
+import com.labGCL03.moeda_estudantil.enums.RollupScope;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import com.labGCL03.moeda_estudantil.repositories.LedgerDailyRollupRepository;
+import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Date;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LedgerRollupServiceTests {
+
+	private static final TransactionType TYPE = TransactionType.SENT;
+
+	private LedgerDailyRollupRepository rollupRepository;
+	private TransactionRepository transactionRepository;
+	private JdbcTemplate jdbcTemplate;
+	private PlatformTransactionManager transactionManager;
+	private LedgerRollupService service;
+
+	@BeforeEach
+	void setUp() {
+		rollupRepository = mock(LedgerDailyRollupRepository.class);
+		transactionRepository = mock(TransactionRepository.class);
+		jdbcTemplate = mock(JdbcTemplate.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		service = new LedgerRollupService(rollupRepository, transactionRepository, jdbcTemplate, transactionManager);
+	}
+
+	@Test
+	void wholeDaysComeOnlyFromRollups() {
+		when(rollupRepository.sumCountByTypeAndDayRange(RollupScope.INSTITUTION, TYPE, day(1), day(31))).thenReturn(40L);
+
+		long count = service.countTransactionsByTypeAndDateRange(TYPE, day(1).atStartOfDay(), day(31).atTime(LocalTime.MAX));
+
+		assertEquals(40, count);
+		verify(transactionRepository, never()).countByTypeBetween(any(), any(), any());
+		verify(transactionRepository, never()).countByTypeFromUntil(any(), any(), any());
+	}
+
+	@Test
+	void partialEdgeDaysAreCountedFromTransactions() {
+		LocalDateTime start = day(1).atTime(10, 0);
+		LocalDateTime end = day(5).atTime(12, 0);
+		when(rollupRepository.sumCountByTypeAndDayRange(RollupScope.INSTITUTION, TYPE, day(2), day(4))).thenReturn(30L);
+		when(transactionRepository.countByTypeFromUntil(TYPE, start, day(2).atStartOfDay())).thenReturn(3L);
+		when(transactionRepository.countByTypeBetween(TYPE, day(5).atStartOfDay(), end)).thenReturn(4L);
+
+		assertEquals(37, service.countTransactionsByTypeAndDateRange(TYPE, start, end));
+	}
+
+	@Test
+	void endAtMidnightIncludesThatInstant() {
+		LocalDateTime end = day(3).atStartOfDay();
+		when(rollupRepository.sumCountByTypeAndDayRange(RollupScope.INSTITUTION, TYPE, day(1), day(2))).thenReturn(10L);
+		when(transactionRepository.countByTypeBetween(TYPE, end, end)).thenReturn(1L);
+
+		assertEquals(11, service.countTransactionsByTypeAndDateRange(TYPE, day(1).atStartOfDay(), end));
+	}
+
+	@Test
+	void rangesWithoutAWholeDayAreCountedDirectly() {
+		LocalDateTime start = day(1).atTime(22, 0);
+		LocalDateTime end = day(2).atTime(2, 0);
+		when(transactionRepository.countByTypeBetween(TYPE, start, end)).thenReturn(5L);
+
+		assertEquals(5, service.countTransactionsByTypeAndDateRange(TYPE, start, end));
+		verify(rollupRepository, never()).sumCountByTypeAndDayRange(any(), any(), any(), any());
+	}
+
+	@Test
+	void invertedRangeIsEmpty() {
+		assertEquals(0, service.countTransactionsByTypeAndDateRange(TYPE, day(2).atStartOfDay(), day(1).atStartOfDay()));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void transactionWithoutInstitutionCountsUnderInstitutionZero() {
+		Student student = new Student();
+		student.setId(5L);
+		Transaction transaction = new Transaction();
+		transaction.setReceiver(student);
+		transaction.setAmount(10);
+		transaction.setType(TransactionType.RECEIVED);
+		transaction.setDate(day(1).atTime(9, 0));
+
+		service.record(transaction);
+
+		ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), args.capture());
+		List<String> scopes = args.getValue().stream().map(row -> row[0] + ":" + row[1]).toList();
+		assertEquals(List.of("USER_IN:5", "INSTITUTION:0"), scopes);
+	}
+
+	@Test
+	void rebuildRedoesEachDayInItsOwnTransaction() {
+		when(jdbcTemplate.queryForList("SELECT DISTINCT DATE(date) FROM transactions", LocalDate.class))
+			.thenReturn(List.of(day(2), day(1)));
+		when(jdbcTemplate.queryForList("SELECT DISTINCT day FROM ledger_daily_rollups", LocalDate.class))
+			.thenReturn(List.of(day(1), day(3)));
+
+		service.rebuild();
+
+		InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+		for (int dayOfMonth = 1; dayOfMonth <= 3; dayOfMonth++) {
+			inOrder.verify(transactionManager).getTransaction(any());
+			inOrder.verify(jdbcTemplate).update("DELETE FROM ledger_daily_rollups WHERE day = ?", Date.valueOf(day(dayOfMonth)));
+			inOrder.verify(transactionManager).commit(any());
+		}
+		verify(jdbcTemplate, never()).update("DELETE FROM ledger_daily_rollups");
+	}
+
+	private static LocalDate day(int dayOfMonth) {
+		return LocalDate.of(2025, 8, dayOfMonth);
+	}
+}
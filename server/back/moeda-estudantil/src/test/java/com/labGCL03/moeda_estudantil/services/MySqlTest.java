@@ -0,0 +1,19 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import org.springframework.boot.testcontainers.context.ImportTestcontainers;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Teste que roda contra o MySQL do contêiner de StressFixtures; pulado quando não há Docker.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Testcontainers(disabledWithoutDocker = true)
+@ImportTestcontainers(StressFixtures.class)
+@interface MySqlTest {
+}
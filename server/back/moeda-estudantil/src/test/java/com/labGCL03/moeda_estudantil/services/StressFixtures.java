@@ -0,0 +1,82 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.entities.Teacher;
+import com.labGCL03.moeda_estudantil.enums.Role;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Banco e dados descartáveis para os testes que rodam contra o MySQL (anotados com
+ * MySqlTest, ao lado do @SpringBootTest).
+ *
+ * O MySQL sobe em um contêiner (Testcontainers) compartilhado por todas as classes e
+ * contextos da execução, e o @ServiceConnection aponta o DataSource para ele no lugar do
+ * banco de application.properties. Sem Docker esses testes são pulados. A URL leva os
+ * mesmos parâmetros da aplicação, dos quais os testes de batch dependem.
+ *
+ * Cada instância usa um sufixo próprio nos emails e CPFs para não colidir com dados de
+ * outras classes no mesmo banco.
+ */
+final class StressFixtures {
+
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+		.withUrlParam("serverTimezone", "UTC")
+		.withUrlParam("rewriteBatchedStatements", "true");
+
+	final String run = Long.toString(System.nanoTime());
+
+	private final InstitutionRepository institutionRepository;
+	private final TeacherRepository teacherRepository;
+	private final StudentRepository studentRepository;
+
+	StressFixtures(InstitutionRepository institutionRepository, TeacherRepository teacherRepository,
+				   StudentRepository studentRepository) {
+		this.institutionRepository = institutionRepository;
+		this.teacherRepository = teacherRepository;
+		this.studentRepository = studentRepository;
+	}
+
+	Institution institution() {
+		Institution institution = new Institution();
+		institution.setName("Instituição estresse " + run);
+		institution.setCreatedAt(LocalDateTime.now());
+		return institutionRepository.save(institution);
+	}
+
+	Teacher teacher(Institution institution, int balance) {
+		Teacher teacher = new Teacher();
+		teacher.setName("Professor " + run);
+		teacher.setEmail("professor." + run + "@stress.test");
+		teacher.setPassword("x");
+		teacher.setRole(Role.TEACHER);
+		teacher.setCpf("T" + run);
+		teacher.setInstitution(institution);
+		teacher.setCurrentBalance(balance);
+		return teacherRepository.save(teacher);
+	}
+
+	List<Long> students(Institution institution, int count, int balance) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Student student = new Student();
+			student.setName("Aluno " + i);
+			student.setEmail("aluno" + i + "." + run + "@stress.test");
+			student.setPassword("x");
+			student.setRole(Role.STUDENT);
+			student.setInstitution(institution);
+			student.setCoinBalance(balance);
+			ids.add(studentRepository.save(student).getId());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,153 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.entities.Teacher;
+import com.labGCL03.moeda_estudantil.entities.Transaction;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Roda EXPLAIN sobre o SQL que o Hibernate realmente gera para as consultas de histórico
+ * e confere que cada lado usa o seu índice composto, sem varredura completa e sem filesort.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+	+ "com.labGCL03.moeda_estudantil.services.TransactionHistoryIndexTests$CapturingInspector")
+@MySqlTest
+class TransactionHistoryIndexTests {
+
+	private static final int STUDENTS = 20;
+	private static final int ROWS_PER_STUDENT = 100;
+	private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+	/**
+	 * Guarda o SQL de cada comando preparado pelo Hibernate.
+	 */
+	public static class CapturingInspector implements StatementInspector {
+
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long teacherId;
+	private Long studentId;
+
+	@BeforeEach
+	void seed() {
+		StressFixtures fixtures = new StressFixtures(institutionRepository, teacherRepository, studentRepository);
+		Institution institution = fixtures.institution();
+		Teacher teacher = fixtures.teacher(institution, 0);
+		List<Student> students = studentRepository.findAllById(fixtures.students(institution, STUDENTS, 0));
+
+		List<Transaction> rows = new ArrayList<>();
+		LocalDateTime date = LocalDateTime.now().minusDays(ROWS_PER_STUDENT);
+		for (int i = 0; i < ROWS_PER_STUDENT; i++) {
+			for (Student student : students) {
+				Transaction transaction = new Transaction();
+				transaction.setSender(teacher);
+				transaction.setReceiver(student);
+				transaction.setAmount(1);
+				transaction.setReason("Histórico " + i);
+				transaction.setType(TransactionType.SENT);
+				transaction.setDate(date.plusDays(i));
+				transaction.setInstitution(institution);
+				rows.add(transaction);
+			}
+		}
+		transactionRepository.saveAll(rows);
+		jdbcTemplate.execute("ANALYZE TABLE transactions");
+
+		teacherId = teacher.getId();
+		studentId = students.get(0).getId();
+	}
+
+	@Test
+	void receivedPageUsesReceiverIndex() {
+		String sql = capture(() -> transactionRepository.findReceivedPage(studentId, MIN_DATE, MAX_DATE,
+			Long.MAX_VALUE, Limit.of(21)));
+
+		assertIndexScan(sql, "idx_transaction_receiver_date", studentId, MIN_DATE, MAX_DATE, MAX_DATE, Long.MAX_VALUE, 21);
+	}
+
+	@Test
+	void sentPageUsesSenderIndex() {
+		String sql = capture(() -> transactionRepository.findSentPage(teacherId, MIN_DATE, MAX_DATE,
+			Long.MAX_VALUE, Limit.of(21)));
+
+		assertIndexScan(sql, "idx_transaction_sender_date", teacherId, MIN_DATE, MAX_DATE, MAX_DATE, Long.MAX_VALUE, 21);
+	}
+
+	@Test
+	void dateRangeHistoryUsesBothIndexes() {
+		String received = capture(() -> transactionRepository.findReceivedHistory(studentId, MIN_DATE, MAX_DATE));
+		String sent = capture(() -> transactionRepository.findSentHistory(teacherId, MIN_DATE, MAX_DATE));
+
+		assertIndexScan(received, "idx_transaction_receiver_date", studentId, MIN_DATE, MAX_DATE);
+		assertIndexScan(sent, "idx_transaction_sender_date", teacherId, MIN_DATE, MAX_DATE);
+	}
+
+	private String capture(Runnable query) {
+		CapturingInspector.STATEMENTS.clear();
+		query.run();
+		return CapturingInspector.STATEMENTS.stream()
+			.filter(sql -> sql.toLowerCase().contains("from transactions"))
+			.reduce((first, second) -> second)
+			.orElseThrow();
+	}
+
+	private void assertIndexScan(String sql, String expectedIndex, Object... parameters) {
+		assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+		Map<String, Object> transactions = plan.get(0);
+
+		assertEquals(expectedIndex, transactions.get("key"), plan.toString());
+		for (Map<String, Object> step : plan) {
+			String extra = String.valueOf(step.get("Extra"));
+			assertNotEquals("ALL", step.get("type"), plan.toString());
+			assertFalse(extra.contains("filesort"), plan.toString());
+			assertFalse(extra.contains("temporary"), plan.toString());
+		}
+	}
+}
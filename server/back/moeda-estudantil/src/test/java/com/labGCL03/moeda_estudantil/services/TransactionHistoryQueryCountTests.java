@@ -0,0 +1,109 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.dto.CursorPageDTO;
+import com.labGCL03.moeda_estudantil.dto.TransactionResponseDTO;
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.entities.Teacher;
+import com.labGCL03.moeda_estudantil.entities.Transaction;
+import com.labGCL03.moeda_estudantil.enums.TransactionType;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confere com as estatísticas do Hibernate que o histórico de um usuário custa o mesmo
+ * número de comandos SQL (um por lado, recebidas e enviadas) com 1 ou com 200 linhas, e que
+ * os nomes de remetente/destinatário vêm na projeção, sem carregar os proxies de User.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@MySqlTest
+class TransactionHistoryQueryCountTests {
+
+	private static final int STATEMENTS_PER_HISTORY = 2;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void historyStatementCountDoesNotGrowWithRows() {
+		StressFixtures fixtures = new StressFixtures(institutionRepository, teacherRepository, studentRepository);
+		Institution institution = fixtures.institution();
+		Teacher teacher = fixtures.teacher(institution, 0);
+		List<Student> students = studentRepository.findAllById(fixtures.students(institution, 2, 0));
+		Student few = students.get(0);
+		Student many = students.get(1);
+		record(teacher, few, 1);
+		record(teacher, many, 200);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		List<TransactionResponseDTO> small = transactionService.getUserTransactionHistory(few.getId());
+		long smallStatements = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		List<TransactionResponseDTO> large = transactionService.getUserTransactionHistory(many.getId());
+		long largeStatements = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		CursorPageDTO<TransactionResponseDTO> page =
+			transactionService.getUserTransactionPage(many.getId(), null, null, null, 100);
+		long pageStatements = statistics.getPrepareStatementCount();
+
+		assertEquals(1, small.size());
+		assertEquals(200, large.size());
+		assertEquals(100, page.getItems().size());
+		assertEquals(STATEMENTS_PER_HISTORY, smallStatements);
+		assertEquals(STATEMENTS_PER_HISTORY, largeStatements);
+		assertEquals(STATEMENTS_PER_HISTORY, pageStatements);
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(teacher.getName(), large.get(0).getSenderName());
+		assertEquals(many.getName(), large.get(0).getReceiverName());
+	}
+
+	private void record(Teacher teacher, Student student, int count) {
+		List<Transaction> rows = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < count; i++) {
+			Transaction transaction = new Transaction();
+			transaction.setSender(teacher);
+			transaction.setReceiver(student);
+			transaction.setAmount(1);
+			transaction.setReason("Histórico " + i);
+			transaction.setType(TransactionType.SENT);
+			transaction.setDate(now.minusMinutes(i));
+			transaction.setInstitution(teacher.getInstitution());
+			rows.add(transaction);
+		}
+		transactionRepository.saveAll(rows);
+	}
+}
@@ -0,0 +1,98 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.entities.Institution;
+import com.labGCL03.moeda_estudantil.repositories.InstitutionRepository;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dispara 500 envios simultâneos de 10 moedas de um professor com saldo 1.000 e confere
+ * que exatamente 100 passam, sem saldo negativo e sem crédito sem débito correspondente.
+ */
+@SpringBootTest
+@MySqlTest
+class TransactionServiceConcurrencyTests {
+
+	private static final int BALANCE = 1000;
+	private static final int AMOUNT = 10;
+	private static final int ATTEMPTS = 500;
+	private static final int STUDENTS = 20;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private InstitutionRepository institutionRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockitoBean
+	private EmailService emailService;
+
+	@Test
+	void concurrentTransfersNeverOverdrawTheTeacher() throws Exception {
+		StressFixtures fixtures = new StressFixtures(institutionRepository, teacherRepository, studentRepository);
+		Institution institution = fixtures.institution();
+		Long teacherId = fixtures.teacher(institution, BALANCE).getId();
+		List<Long> studentIds = fixtures.students(institution, STUDENTS, 0);
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < ATTEMPTS; i++) {
+			Long studentId = studentIds.get(i % STUDENTS);
+			results.add(pool.submit(() -> {
+				start.await();
+				try {
+					transactionService.sendCoins(teacherId, studentId, AMOUNT, "Teste de concorrência");
+					return true;
+				} catch (IllegalArgumentException insufficient) {
+					return false;
+				}
+			}));
+		}
+		start.countDown();
+
+		int sent = 0;
+		for (Future<Boolean> result : results) {
+			if (result.get()) {
+				sent++;
+			}
+		}
+		pool.shutdown();
+		pool.awaitTermination(1, TimeUnit.MINUTES);
+
+		long credited = studentIds.stream()
+			.mapToLong(id -> studentRepository.findById(id).orElseThrow().getCoinBalance())
+			.sum();
+		Integer recorded = jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM transactions WHERE sender_id = ?", Integer.class, teacherId);
+
+		assertEquals(BALANCE / AMOUNT, sent);
+		assertEquals(0, teacherRepository.findById(teacherId).orElseThrow().getCurrentBalance().intValue());
+		assertEquals(BALANCE, credited);
+		assertEquals(BALANCE / AMOUNT, recorded.intValue());
+	}
+}
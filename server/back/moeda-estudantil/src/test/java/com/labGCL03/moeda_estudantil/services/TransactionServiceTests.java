@@ -0,0 +1,59 @@
+package com.labGCL03.moeda_estudantil.services;
+
+import com.labGCL03.moeda_estudantil.dto.TransferCoinsDTO;
+import com.labGCL03.moeda_estudantil.entities.Student;
+import com.labGCL03.moeda_estudantil.entities.Teacher;
+import com.labGCL03.moeda_estudantil.repositories.StudentRepository;
+import com.labGCL03.moeda_estudantil.repositories.TeacherRepository;
+import com.labGCL03.moeda_estudantil.repositories.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void bulkCreditsLockStudentsInIdOrder() {
+		StudentRepository studentRepository = mock(StudentRepository.class);
+		TeacherRepository teacherRepository = mock(TeacherRepository.class);
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		TransactionService service = new TransactionService(mock(TransactionRepository.class), studentRepository,
+			teacherRepository, mock(EmailService.class), mock(LedgerRollupService.class), jdbcTemplate);
+
+		Teacher teacher = new Teacher();
+		teacher.setId(1L);
+		when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+		when(teacherRepository.debitBalance(eq(1L), anyInt())).thenReturn(1);
+		when(studentRepository.findAllById(any())).thenReturn(Stream.of(30L, 10L, 20L).map(id -> {
+			Student student = new Student();
+			student.setId(id);
+			return student;
+		}).toList());
+
+		// Pedido fora de ordem e com aluno repetido
+		service.sendCoinsBulk(1L, List.of(
+			new TransferCoinsDTO(30L, 5, "Seminário"),
+			new TransferCoinsDTO(10L, 5, "Seminário"),
+			new TransferCoinsDTO(20L, 5, "Seminário"),
+			new TransferCoinsDTO(10L, 1, "Bônus")));
+
+		ArgumentCaptor<List<Object[]>> credits = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), credits.capture());
+		assertEquals(List.of(10L, 20L, 30L), credits.getValue().stream().map(row -> row[1]).toList());
+		assertEquals(List.of(6, 5, 5), credits.getValue().stream().map(row -> row[0]).toList());
+	}
+}
@@ -0,0 +1,71 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+	@Test
+	void neverReportsAnInsertedValueAsMissing() {
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("CODE-" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("CODE-" + i));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheConfiguredRate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("CODE-" + i);
+		}
+		int falsePositives = 0;
+		int probes = 100_000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("MISS-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < probes * 0.02, "falsos positivos: " + falsePositives);
+		assertTrue(filter.estimatedFalsePositiveRate() < 0.02);
+	}
+
+	@Test
+	void saturationGrowsPastTheExpectedCount() {
+		BloomFilter filter = new BloomFilter(1_000, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put("CODE-" + i);
+		}
+		double planned = filter.saturation();
+		for (int i = 1_000; i < 5_000; i++) {
+			filter.put("CODE-" + i);
+		}
+
+		assertTrue(planned > 0.4 && planned < 0.6, "saturação: " + planned);
+		assertTrue(filter.saturation() > 0.9);
+		assertTrue(filter.estimatedFalsePositiveRate() > 0.1);
+	}
+
+	@Test
+	void repeatedValuesCountOnce() {
+		BloomFilter filter = new BloomFilter(100, 0.01);
+		filter.put("A3B7-9C2F");
+		filter.put("A3B7-9C2F");
+
+		assertEquals(1, filter.insertions());
+		assertFalse(new BloomFilter(100, 0.01).mightContain("A3B7-9C2F"));
+	}
+
+	@Test
+	void rejectsInvalidSizing() {
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+	}
+}
@@ -0,0 +1,143 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedTtlCacheTests {
+
+	private static final class MutableClock extends Clock {
+		private Instant now = Instant.EPOCH;
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("UTC");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+	@Test
+	void countsHitsAndMisses() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getOrLoad("a", key -> "A" + loads.incrementAndGet());
+		assertEquals("A1", cache.getOrLoad("a", key -> "A" + loads.incrementAndGet()));
+
+		BoundedTtlCache.Stats stats = cache.stats();
+		assertEquals(1, stats.hits());
+		assertEquals(1, stats.misses());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedWhenFull() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+		cache.getOrLoad("a", key -> "A");
+		cache.getOrLoad("b", key -> "B");
+		cache.getOrLoad("a", key -> "A");
+		cache.getOrLoad("c", key -> "C");
+
+		assertEquals("A", cache.getOrLoad("a", key -> "novo"));
+		assertEquals("novo", cache.getOrLoad("b", key -> "novo"));
+		assertEquals(2, cache.stats().evictions());
+	}
+
+	@Test
+	void expiresAfterTtl() {
+		MutableClock clock = new MutableClock();
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+		cache.getOrLoad("a", key -> "antigo");
+
+		clock.advance(Duration.ofSeconds(31));
+
+		assertEquals("novo", cache.getOrLoad("a", key -> "novo"));
+		assertEquals(1, cache.stats().expirations());
+	}
+
+	@Test
+	void doesNotStoreValueLoadedBeforeInvalidation() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+		String loaded = cache.getOrLoad("a", key -> {
+			cache.invalidate("a");
+			return "obsoleto";
+		});
+
+		assertEquals("obsoleto", loaded);
+		assertEquals("atual", cache.getOrLoad("a", key -> "atual"));
+		assertEquals(0, cache.stats().hits());
+	}
+
+	@Test
+	void invalidatingAnotherKeyKeepsTheLoadInFlight() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+		cache.getOrLoad("a", key -> {
+			cache.invalidate("b");
+			cache.invalidateKeys(other -> other.equals("c"));
+			return "A";
+		});
+
+		assertEquals("A", cache.peek("a"));
+	}
+
+	@Test
+	void invalidateKeysDiscardsMatchingLoadInFlight() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+		cache.getOrLoad("b", key -> "B");
+
+		cache.getOrLoad("a", key -> {
+			cache.invalidateKeys(other -> other.equals("a"));
+			return "obsoleto";
+		});
+
+		assertNull(cache.peek("a"));
+		assertEquals("B", cache.peek("b"));
+	}
+
+	@Test
+	void failedLoadDoesNotLeaveTheKeyPending() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+		assertThrows(IllegalStateException.class, () -> cache.getOrLoad("a", key -> {
+			throw new IllegalStateException("banco fora");
+		}));
+
+		assertEquals("A", cache.getOrLoad("a", key -> "A"));
+		assertEquals("A", cache.peek("a"));
+	}
+
+	@Test
+	void invalidatesByPredicateOnKeyAndValue() {
+		BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+		cache.getOrLoad("a", key -> 1);
+		cache.getOrLoad("b", key -> 2);
+
+		cache.invalidateIf((key, value) -> value == 2);
+
+		assertEquals(1, cache.stats().size());
+		assertEquals(1, cache.stats().invalidations());
+	}
+}
@@ -0,0 +1,111 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CouponCodesTests {
+
+	private static final long KEY = 0x5DEECE66DL;
+
+	@Test
+	void consecutiveSequencesNeverCollide() {
+		Set<String> codes = new HashSet<>();
+		for (long sequence = 0; sequence < 200_000; sequence++) {
+			assertTrue(codes.add(CouponCodes.format(CouponCodes.scramble(sequence, KEY))));
+		}
+	}
+
+	@Test
+	void scrambleStaysInsideTheCodeSpace() {
+		for (long sequence = CouponCodes.MAX_SEQUENCE - 1000; sequence <= CouponCodes.MAX_SEQUENCE; sequence++) {
+			long value = CouponCodes.scramble(sequence, KEY);
+			assertTrue(value >= 0 && value <= CouponCodes.MAX_SEQUENCE);
+		}
+		assertThrows(IllegalArgumentException.class, () -> CouponCodes.scramble(CouponCodes.MAX_SEQUENCE + 1, KEY));
+	}
+
+	@Test
+	void keyChangesTheSequence() {
+		assertNotEquals(CouponCodes.scramble(1, KEY), CouponCodes.scramble(1, KEY + 1));
+	}
+
+	@Test
+	void formatsWithAlphabetAndCheckCharacter() {
+		String code = CouponCodes.format(CouponCodes.scramble(42, KEY));
+
+		assertTrue(code.matches("[0-9A-HJKMNP-TV-Z]{5}-[0-9A-HJKMNP-TV-Z]{5}"), code);
+		assertEquals("00000-00000", CouponCodes.format(0));
+	}
+
+	@Test
+	void checkCharacterDetectsSingleSubstitution() {
+		char[] data = "7K3QX9M2A".toCharArray();
+		char check = CouponCodes.checkCharacter(data);
+		for (int i = 0; i < data.length; i++) {
+			char original = data[i];
+			for (char c : CouponCodes.ALPHABET.toCharArray()) {
+				if (c == original) {
+					continue;
+				}
+				data[i] = c;
+				assertNotEquals(check, CouponCodes.checkCharacter(data));
+			}
+			data[i] = original;
+		}
+	}
+
+	@Test
+	void normalizeAcceptsIssuedCodesAndTypingVariants() {
+		String code = CouponCodes.format(CouponCodes.scramble(7, KEY));
+		String sloppy = code.toLowerCase().replace("-", " ").replace('0', 'o').replace('1', 'l');
+
+		assertEquals(code, CouponCodes.normalize(code));
+		assertEquals(code, CouponCodes.normalize(code.replace("-", "")));
+		assertEquals(code, CouponCodes.normalize(sloppy));
+		assertEquals("A3B7-9C2F", CouponCodes.normalize("a3b7-9c2f"));
+	}
+
+	@Test
+	void normalizeRejectsMalformedCodesOffline() {
+		String code = CouponCodes.format(CouponCodes.scramble(7, KEY));
+		char last = code.charAt(code.length() - 1);
+		char wrongCheck = CouponCodes.ALPHABET.charAt((CouponCodes.ALPHABET.indexOf(last) + 1) % 32);
+
+		assertNull(CouponCodes.normalize(code.substring(0, code.length() - 1) + wrongCheck));
+		assertNull(CouponCodes.normalize(code.substring(0, code.length() - 1)));
+		assertNull(CouponCodes.normalize(code + "0"));
+		assertNull(CouponCodes.normalize("UUUUU-UUUUU"));
+		assertNull(CouponCodes.normalize("' OR 1=1 --"));
+		assertNull(CouponCodes.normalize(""));
+		assertNull(CouponCodes.normalize(null));
+		assertFalse(CouponCodes.isWellFormed("A3B7-9C2G"));
+	}
+
+	@Test
+	void randomGarbageIsAlmostAlwaysRejected() {
+		Random random = new Random(1);
+		int accepted = 0;
+		int attempts = 100_000;
+		for (int i = 0; i < attempts; i++) {
+			char[] chars = new char[10];
+			for (int j = 0; j < chars.length; j++) {
+				chars[j] = CouponCodes.ALPHABET.charAt(random.nextInt(32));
+			}
+			if (CouponCodes.isWellFormed(new String(chars))) {
+				accepted++;
+			}
+		}
+		// só 1 em 32 passa pelo dígito verificador
+		assertTrue(accepted < attempts / 25, "aceitos: " + accepted);
+	}
+}
@@ -0,0 +1,58 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import com.labGCL03.moeda_estudantil.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorCodecTests {
+
+	@Test
+	void roundTripsParts() {
+		String cursor = CursorCodec.encode("2026-10-17T10:15:30.123", "42");
+
+		assertArrayEquals(new String[]{"2026-10-17T10:15:30.123", "42"}, CursorCodec.decode(cursor, 2));
+	}
+
+	@Test
+	void roundTripsEmptyAndNonAsciiParts() {
+		String cursor = CursorCodec.encode("COST_ASC", "", "promoção");
+
+		assertArrayEquals(new String[]{"COST_ASC", "", "promoção"}, CursorCodec.decode(cursor, 3));
+	}
+
+	@Test
+	void cursorIsUrlSafe() {
+		String cursor = CursorCodec.encode("??>>??", "~~~");
+
+		assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="), cursor);
+	}
+
+	@Test
+	void rejectsMalformedInput() {
+		assertThrows(BusinessException.class, () -> CursorCodec.decode("não é base64!", 2));
+		assertThrows(BusinessException.class, () -> CursorCodec.decode("a", 2));
+	}
+
+	@Test
+	void rejectsTamperedCursor() {
+		String forged = Base64.getUrlEncoder().withoutPadding()
+			.encodeToString("2026-10-17T10:15:30|42|extra".getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(BusinessException.class, () -> CursorCodec.decode(forged, 2));
+	}
+
+	@Test
+	void rejectsWrongPartCount() {
+		String cursor = CursorCodec.encode("2026-10-17T10:15:30", "42");
+
+		assertThrows(BusinessException.class, () -> CursorCodec.decode(cursor, 3));
+		assertThrows(BusinessException.class, () -> CursorCodec.decode(cursor, 1));
+		assertThrows(BusinessException.class, () -> CursorCodec.decode(CursorCodec.encode("sozinho"), 2));
+	}
+}
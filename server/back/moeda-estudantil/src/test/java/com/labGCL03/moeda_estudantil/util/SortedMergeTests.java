@@ -0,0 +1,70 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SortedMergeTests {
+
+	record Row(int day, long id) {
+	}
+
+	// Mesmo critério do histórico: mais recentes primeiro, desempate pelo maior id
+	private static final Comparator<Row> NEWEST_FIRST =
+		Comparator.comparingInt(Row::day).thenComparingLong(Row::id).reversed();
+
+	@Test
+	void interleavesBothSidesInOrder() {
+		List<Row> received = List.of(new Row(9, 90), new Row(5, 50), new Row(1, 10));
+		List<Row> sent = List.of(new Row(8, 80), new Row(6, 60), new Row(2, 20));
+
+		List<Row> merged = SortedMerge.merge(received, sent, NEWEST_FIRST, Integer.MAX_VALUE);
+
+		assertEquals(List.of(new Row(9, 90), new Row(8, 80), new Row(6, 60), new Row(5, 50),
+			new Row(2, 20), new Row(1, 10)), merged);
+	}
+
+	@Test
+	void breaksDateTiesById() {
+		List<Row> received = List.of(new Row(5, 7), new Row(5, 3));
+		List<Row> sent = List.of(new Row(5, 9), new Row(5, 4));
+
+		List<Row> merged = SortedMerge.merge(received, sent, NEWEST_FIRST, Integer.MAX_VALUE);
+
+		assertEquals(List.of(new Row(5, 9), new Row(5, 7), new Row(5, 4), new Row(5, 3)), merged);
+	}
+
+	@Test
+	void emitsRowPresentOnBothSidesOnce() {
+		// Transação em que o usuário é remetente e destinatário aparece nas duas varreduras
+		List<Row> received = List.of(new Row(5, 50), new Row(3, 30));
+		List<Row> sent = List.of(new Row(5, 50), new Row(4, 40));
+
+		List<Row> merged = SortedMerge.merge(received, sent, NEWEST_FIRST, Integer.MAX_VALUE);
+
+		assertEquals(List.of(new Row(5, 50), new Row(4, 40), new Row(3, 30)), merged);
+	}
+
+	@Test
+	void stopsAtLimit() {
+		List<Row> received = List.of(new Row(9, 90), new Row(5, 50), new Row(1, 10));
+		List<Row> sent = List.of(new Row(8, 80), new Row(6, 60), new Row(2, 20));
+
+		assertEquals(List.of(new Row(9, 90), new Row(8, 80), new Row(6, 60)),
+			SortedMerge.merge(received, sent, NEWEST_FIRST, 3));
+		assertEquals(List.of(), SortedMerge.merge(received, sent, NEWEST_FIRST, 0));
+	}
+
+	@Test
+	void handlesOneEmptySide() {
+		List<Row> rows = List.of(new Row(3, 30), new Row(2, 20), new Row(1, 10));
+
+		assertEquals(rows, SortedMerge.merge(rows, List.of(), NEWEST_FIRST, Integer.MAX_VALUE));
+		assertEquals(rows, SortedMerge.merge(List.of(), rows, NEWEST_FIRST, Integer.MAX_VALUE));
+		assertEquals(rows.subList(0, 2), SortedMerge.merge(List.of(), rows, NEWEST_FIRST, 2));
+		assertEquals(List.of(), SortedMerge.merge(List.<Row>of(), List.of(), NEWEST_FIRST, 10));
+	}
+}
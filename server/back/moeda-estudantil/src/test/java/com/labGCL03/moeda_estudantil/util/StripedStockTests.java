@@ -0,0 +1,102 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStockTests {
+
+	@Test
+	void spreadsUnitsAcrossStripes() {
+		StripedStock stock = new StripedStock(4);
+		stock.add(10);
+
+		assertEquals(10, stock.available());
+		for (int i = 0; i < 10; i++) {
+			assertTrue(stock.tryAcquire());
+		}
+		assertFalse(stock.tryAcquire());
+	}
+
+	@Test
+	void releaseReturnsUnitAndDrainEmptiesEverything() {
+		StripedStock stock = new StripedStock(8);
+		stock.add(3);
+		assertTrue(stock.tryAcquire());
+		stock.release();
+
+		assertEquals(3, stock.drain());
+		assertEquals(0, stock.available());
+		assertFalse(stock.tryAcquire());
+	}
+
+	@Test
+	void concurrentAcquiresNeverExceedStock() throws Exception {
+		StripedStock stock = new StripedStock(8);
+		stock.add(1000);
+
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int t = 0; t < 16; t++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				int acquired = 0;
+				for (int i = 0; i < 500; i++) {
+					if (stock.tryAcquire()) {
+						acquired++;
+					}
+				}
+				return acquired;
+			}));
+		}
+		start.countDown();
+
+		int total = 0;
+		for (Future<Integer> result : results) {
+			total += result.get();
+		}
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+
+		assertEquals(1000, total);
+		assertEquals(0, stock.available());
+	}
+
+	@Test
+	void drainRacingWithAcquiresAccountsForEveryUnit() throws Exception {
+		StripedStock stock = new StripedStock(4);
+		stock.add(10_000);
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			results.add(pool.submit(() -> {
+				int acquired = 0;
+				while (stock.tryAcquire()) {
+					acquired++;
+				}
+				return acquired;
+			}));
+		}
+		int drained = stock.drain();
+
+		int acquired = 0;
+		for (Future<Integer> result : results) {
+			acquired += result.get();
+		}
+		pool.shutdown();
+
+		assertEquals(10_000, acquired + drained);
+	}
+}
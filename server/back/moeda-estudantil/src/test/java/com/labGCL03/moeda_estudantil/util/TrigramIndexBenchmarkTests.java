@@ -0,0 +1,96 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latência da busca com 100 mil vantagens sintéticas (palavras comuns do catálogo no meio de
+ * um vocabulário gerado), misturando prefixos (digitação em andamento), palavras inteiras,
+ * erros de digitação e termos de empresa. Imprime p50/p99 e exige p99 abaixo de 1 ms.
+ * Depende da máquina; rode com STRESS_TESTS=true.
+ */
+@EnabledIfEnvironmentVariable(named = "STRESS_TESTS", matches = "true")
+class TrigramIndexBenchmarkTests {
+
+	private static final int DOCUMENTS = 100_000;
+	private static final int WARMUP = 20_000;
+	private static final int SAMPLES = 20_000;
+	// Vocabulário gerado, para que cada palavra apareça em poucas centenas de documentos
+	private static final int VOCABULARY = 4_000;
+
+	private static final String[] WORDS = {
+		"desconto", "curso", "online", "cafe", "gratis", "ingresso", "cinema", "livro", "camiseta",
+		"academia", "mensalidade", "lanche", "pizza", "hamburguer", "programacao", "ingles", "espanhol",
+		"show", "teatro", "museu", "passeio", "viagem", "hotel", "pousada", "fone", "mochila", "caneca",
+		"adesivo", "chaveiro", "bolsa", "estagio", "mentoria", "workshop", "palestra", "certificado",
+		"assinatura", "streaming", "musica", "jogo", "ebook", "papelaria", "caderno", "caneta", "tenis"
+	};
+	private static final String[] COMPANIES = {
+		"Tech Solutions", "Cafeteria São João", "Cine Brasil", "Livraria Central", "Academia Forma",
+		"Pizzaria Bella", "Escola de Idiomas Global", "Viagens Sol", "Loja do Estudante", "Papelaria Alfa"
+	};
+	private static final List<String> QUERIES = List.of(
+		"desc", "desconto", "cafe gr", "cinema", "progr", "programacao", "ingles cur", "pizzaria",
+		"descnto", "acadmia", "tech", "livraria central", "camis", "workshop de", "certificado online");
+
+	@Test
+	void p99SearchLatencyStaysUnderOneMillisecond() {
+		TrigramIndex index = new TrigramIndex(3.0, 2.0, 1.0);
+		Random random = new Random(42);
+		String[] vocabulary = vocabulary(random);
+		for (int id = 1; id <= DOCUMENTS; id++) {
+			index.put(id, phrase(random, vocabulary, 3), COMPANIES[random.nextInt(COMPANIES.length)],
+				phrase(random, vocabulary, 12));
+		}
+
+		for (int i = 0; i < WARMUP; i++) {
+			index.search(QUERIES.get(i % QUERIES.size()), 20);
+		}
+
+		long[] nanos = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			String query = QUERIES.get(i % QUERIES.size());
+			long start = System.nanoTime();
+			List<Long> result = index.search(query, 20);
+			nanos[i] = System.nanoTime() - start;
+			assertFalse(result.isEmpty(), "sem resultados para " + query);
+		}
+		Arrays.sort(nanos);
+
+		double p50 = nanos[SAMPLES / 2] / 1e6;
+		double p99 = nanos[SAMPLES * 99 / 100] / 1e6;
+		System.out.printf("Busca com %d documentos: p50=%.3f ms, p99=%.3f ms%n", DOCUMENTS, p50, p99);
+
+		assertTrue(p99 < 1.0, "p99 deveria ficar abaixo de 1 ms, foi " + p99);
+	}
+
+	private static String[] vocabulary(Random random) {
+		String[] vocabulary = Arrays.copyOf(WORDS, VOCABULARY);
+		for (int i = WORDS.length; i < VOCABULARY; i++) {
+			StringBuilder word = new StringBuilder();
+			for (int length = 4 + random.nextInt(6); length > 0; length--) {
+				word.append((char) ('a' + random.nextInt(26)));
+			}
+			vocabulary[i] = word.toString();
+		}
+		return vocabulary;
+	}
+
+	private static String phrase(Random random, String[] vocabulary, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(vocabulary[random.nextInt(vocabulary.length)]);
+		}
+		return text.toString();
+	}
+}
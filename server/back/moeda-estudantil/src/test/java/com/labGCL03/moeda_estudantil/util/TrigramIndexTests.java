@@ -0,0 +1,89 @@
+package com.labGCL03.moeda_estudantil.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTests {
+
+	private TrigramIndex sampleIndex() {
+		TrigramIndex index = new TrigramIndex(3.0, 2.0, 1.0);
+		index.put(1, "Desconto de 20% em cursos", "Tech Solutions", "Cursos online de programação");
+		index.put(2, "Café grátis", "Cafeteria São João", "Um café expresso na cantina");
+		index.put(3, "Ingresso para o cinema", "Cine Brasil", "Sessão 2D com desconto");
+		return index;
+	}
+
+	@Test
+	void foldsAccentsAndCase() {
+		assertEquals("cafe gratis sao joao", TrigramIndex.fold("Café  GRÁTIS, São João!"));
+		assertEquals("programacao", TrigramIndex.fold("Programação"));
+	}
+
+	@Test
+	void findsByPrefixIgnoringAccents() {
+		TrigramIndex index = sampleIndex();
+
+		assertEquals(List.of(2L), index.search("cafe", 10));
+		assertEquals(1L, index.search("desc", 10).get(0));
+		assertTrue(index.search("programacao", 10).contains(1L));
+	}
+
+	@Test
+	void ranksNameMatchesAboveDescriptionMatches() {
+		// "desconto" está no nome da vantagem 1 e só na descrição da 3
+		assertEquals(List.of(1L, 3L), sampleIndex().search("desconto", 10));
+	}
+
+	@Test
+	void toleratesSmallTypos() {
+		assertEquals(3L, sampleIndex().search("cinma", 10).get(0));
+	}
+
+	@Test
+	void appliesUpdatesAndRemovals() {
+		TrigramIndex index = sampleIndex();
+
+		index.put(2, "Chá gelado", "Cafeteria São João", "Bebida gelada");
+		assertTrue(index.search("gelado", 10).contains(2L));
+		assertTrue(index.search("grátis", 10).isEmpty());
+
+		index.remove(1);
+		assertEquals(List.of(3L), index.search("desconto", 10));
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	void keepsResultsAfterCompaction() {
+		TrigramIndex index = new TrigramIndex(1.0);
+		for (long id = 0; id < 2000; id++) {
+			index.put(id, "vantagem " + id);
+		}
+		for (long id = 0; id < 1500; id++) {
+			index.remove(id);
+		}
+
+		assertEquals(500, index.size());
+		assertEquals(List.of(1999L), index.search("vantagem 1999", 1));
+	}
+
+	@Test
+	void reusedScratchBuffersDoNotLeakCounts() {
+		TrigramIndex index = sampleIndex();
+		List<Long> first = index.search("desconto", 10);
+		for (int i = 0; i < 100; i++) {
+			index.search("cafe", 10);
+			assertEquals(first, index.search("desconto", 10));
+		}
+
+		// Índice maior que os vetores já no pool
+		for (long id = 10; id < 3000; id++) {
+			index.put(id, "brinde " + id, "Loja", "");
+		}
+		assertEquals(first, index.search("desconto", 10));
+		assertEquals(List.of(2999L), index.search("brinde 2999", 1));
+	}
+}